@@ -0,0 +1,66 @@
+package org.firstinspires.ftc.ftcdevcommon;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.concurrent.TimeUnit;
+
+// Throughput and allocation (see the gc profiler columns) of a
+// (timestamp, heading) tuple as a boxed Pair<Long, Double>, as a
+// LongDoublePair and as a reused LongDoublePair.Mutable.
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class PairBenchmark {
+
+    private static final int SAMPLE_COUNT = 1000;
+
+    private long[] timestamps;
+    private double[] headings;
+    private final LongDoublePair.Mutable reusedPair = new LongDoublePair.Mutable();
+
+    @Setup
+    public void setup() {
+        timestamps = new long[SAMPLE_COUNT];
+        headings = new double[SAMPLE_COUNT];
+        for (int i = 0; i < SAMPLE_COUNT; i++) {
+            timestamps[i] = 1000000000L + i * 5000000L;
+            headings[i] = Math.sin(i / 100.0) * 180.0;
+        }
+    }
+
+    @Benchmark
+    public double boxedPair() {
+        double sum = 0.0;
+        for (int i = 0; i < SAMPLE_COUNT; i++) {
+            Pair<Long, Double> sample = Pair.create(timestamps[i], headings[i]);
+            sum += sample.first * 1.0e-9 + sample.second;
+        }
+        return sum;
+    }
+
+    @Benchmark
+    public double primitivePair() {
+        double sum = 0.0;
+        for (int i = 0; i < SAMPLE_COUNT; i++) {
+            LongDoublePair sample = LongDoublePair.create(timestamps[i], headings[i]);
+            sum += sample.first * 1.0e-9 + sample.second;
+        }
+        return sum;
+    }
+
+    @Benchmark
+    public double mutablePair() {
+        double sum = 0.0;
+        for (int i = 0; i < SAMPLE_COUNT; i++) {
+            LongDoublePair.Mutable sample = reusedPair.set(timestamps[i], headings[i]);
+            sum += sample.first * 1.0e-9 + sample.second;
+        }
+        return sum;
+    }
+}
@@ -0,0 +1,46 @@
+package org.firstinspires.ftc.ftcdevcommon;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+// Round-trip latency of Threading.launchAsync(), which creates and
+// shuts down a single-thread executor for every task, compared with
+// submitting the same task to an executor that is reused.
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class ThreadingBenchmark {
+
+    private ExecutorService reusedExecutor;
+
+    @Setup
+    public void setup() {
+        reusedExecutor = Executors.newSingleThreadExecutor();
+    }
+
+    @TearDown
+    public void tearDown() {
+        reusedExecutor.shutdownNow();
+    }
+
+    @Benchmark
+    public Integer launchAsync() throws Exception {
+        return Threading.getFutureCompletion(Threading.launchAsync(() -> 1));
+    }
+
+    @Benchmark
+    public Integer reusedExecutor() throws Exception {
+        return Threading.getFutureCompletion(CompletableFuture.supplyAsync(() -> 1, reusedExecutor));
+    }
+}
@@ -0,0 +1,88 @@
+package org.firstinspires.ftc.ftcdevcommon;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+import org.w3c.dom.Document;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+import javax.xml.parsers.DocumentBuilderFactory;
+
+// Compares the ways of reading the values that a typical subsystem
+// constructor needs from its XML element: one XPathAccess call per
+// value, a single XPathBatch, and the array getters for a lookup table.
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class XPathAccessBenchmark {
+
+    private static final int VALUE_COUNT = 20;
+
+    private RobotXMLElement subsystemElement;
+    private String[] paths;
+
+    @Setup
+    public void setup() throws Exception {
+        StringBuilder xml = new StringBuilder("<SUBSYSTEM name=\"drive\">");
+        for (int i = 0; i < VALUE_COUNT; i++)
+            xml.append("<value_").append(i).append(">").append(i * 0.25).append("</value_").append(i).append(">");
+        xml.append("<power_curve>");
+        for (int i = 0; i < VALUE_COUNT; i++)
+            xml.append(i == 0 ? "" : ",").append(i / (double) VALUE_COUNT);
+        xml.append("</power_curve>");
+        for (int i = 0; i < VALUE_COUNT; i++)
+            xml.append("<position>").append(i * 0.05).append("</position>");
+        xml.append("</SUBSYSTEM>");
+
+        Document document = DocumentBuilderFactory.newInstance().newDocumentBuilder()
+                .parse(new ByteArrayInputStream(xml.toString().getBytes(StandardCharsets.UTF_8)));
+        subsystemElement = new RobotXMLElement(document.getDocumentElement());
+
+        paths = new String[VALUE_COUNT];
+        for (int i = 0; i < VALUE_COUNT; i++)
+            paths[i] = "value_" + i;
+    }
+
+    @Benchmark
+    public void xpathAccessPerValue(Blackhole pBlackhole) throws Exception {
+        XPathAccess xpathAccess = new XPathAccess(subsystemElement);
+        for (String path : paths)
+            pBlackhole.consume(xpathAccess.getRequiredDouble(path));
+    }
+
+    @Benchmark
+    public void xpathAccessDefaulted(Blackhole pBlackhole) throws Exception {
+        XPathAccess xpathAccess = new XPathAccess(subsystemElement);
+        for (String path : paths)
+            pBlackhole.consume(xpathAccess.getDouble(path, 1.0));
+    }
+
+    @Benchmark
+    public void xpathBatch(Blackhole pBlackhole) throws Exception {
+        XPathBatch batch = new XPathBatch(subsystemElement);
+        XPathBatch.DoubleItem[] items = new XPathBatch.DoubleItem[VALUE_COUNT];
+        for (int i = 0; i < VALUE_COUNT; i++)
+            items[i] = batch.requiredDouble(paths[i]);
+        batch.resolve();
+        for (XPathBatch.DoubleItem item : items)
+            pBlackhole.consume(item.get());
+    }
+
+    @Benchmark
+    public double[] commaSeparatedArray() throws Exception {
+        return new XPathAccess(subsystemElement).getRequiredDoubleArray("power_curve");
+    }
+
+    @Benchmark
+    public double[] repeatedElementArray() throws Exception {
+        return new XPathAccess(subsystemElement).getRequiredDoubleArray("position");
+    }
+}
@@ -0,0 +1,46 @@
+package org.firstinspires.ftc.ftcdevcommon;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+// Base class for long-running threads that supply information,
+// e.g. the most recent IMU reading or the most recent webcam
+// frame.
+
+// Subclasses call heartbeat() once per loop iteration so that a
+// StallWatchdog can tell when the worker stops making progress. A
+// worker that sleeps or waits between iterations must be registered
+// with a stall threshold longer than the wait.
+public abstract class AutoWorker<T> implements Callable<T> {
+
+    private final AtomicBoolean stopThread = new AtomicBoolean();
+    private final Heartbeat heartbeat = new Heartbeat(getHeartbeatName());
+
+    public AutoWorker() {}
+
+    @Override
+    public abstract T call() throws InterruptedException;
+
+    public void stopThread() {
+        stopThread.set(true);
+    }
+
+    public boolean stopThreadRequested() {
+        return stopThread.get();
+    }
+
+    public Heartbeat getHeartbeat() {
+        return heartbeat;
+    }
+
+    protected void heartbeat() {
+        heartbeat.beat();
+    }
+
+    // An anonymous subclass has no simple name.
+    private String getHeartbeatName() {
+        String name = getClass().getSimpleName();
+        return name.isEmpty() ? getClass().getName() : name;
+    }
+
+}
@@ -0,0 +1,84 @@
+package org.firstinspires.ftc.ftcdevcommon;
+
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataOutputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+
+// Records each value that an AutoWorker produces, with a nanosecond
+// timestamp, to a compact append-only binary file so that the values
+// can be fed back later with AutoWorkerReplay - on the robot or on a
+// desktop JVM - to benchmark and regression-test the code that
+// consumes them.
+
+// Call record() at the point where the worker publishes each new
+// value, e.g. right after it stores the most recent IMU reading --
+//   imuRecorder = new AutoWorkerRecorder<>(workingDirectory + "/IMU.rec", SampleCodec.DOUBLE_ARRAY);
+//   ...
+//   mostRecentAngles.set(angles);
+//   imuRecorder.record(angles);
+// and close() the recorder when the worker exits.
+
+// File layout: a header of MAGIC (int), VERSION (int) and the wall-
+// clock time in milliseconds at which recording started (long),
+// followed by one record per value: the System.nanoTime() offset from
+// the start of recording (long) and the value as written by the
+// SampleCodec. Writes are buffered; a record that is cut off by a
+// crash is ignored on replay.
+public class AutoWorkerRecorder<V> implements Closeable {
+
+    // --------- CLASS VARIABLES ----------
+    static final int MAGIC = 0x46544352; // "FTCR"
+    static final int VERSION = 1;
+    private static final String TAG = "AutoWorkerRecorder";
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final String recordingFilePath;
+    private final SampleCodec<V> codec;
+    private final DataOutputStream output;
+    private final long startNanos;
+    private long recordCount = 0;
+    private boolean closed = false;
+
+    // --------- CONSTRUCTORS ----------
+    public AutoWorkerRecorder(String pRecordingFilePath, SampleCodec<V> pCodec) throws IOException {
+        recordingFilePath = pRecordingFilePath;
+        codec = pCodec;
+        output = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(pRecordingFilePath), BUFFER_SIZE));
+        output.writeInt(MAGIC);
+        output.writeInt(VERSION);
+        output.writeLong(System.currentTimeMillis());
+        startNanos = System.nanoTime();
+    }
+
+    // --------- FUNCTIONS ----------
+    public synchronized void record(V pValue) throws IOException {
+        if (closed)
+            throw new AutonomousRobotException(TAG, "Recording " + recordingFilePath + " is closed");
+
+        output.writeLong(System.nanoTime() - startNanos);
+        codec.write(pValue, output);
+        recordCount++;
+    }
+
+    public synchronized long getRecordCount() {
+        return recordCount;
+    }
+
+    // Pushes buffered records to the file, e.g. at the end of each match
+    // phase, so that they survive a crash.
+    public synchronized void flush() throws IOException {
+        if (!closed)
+            output.flush();
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        if (closed)
+            return;
+
+        closed = true;
+        output.close();
+    }
+}
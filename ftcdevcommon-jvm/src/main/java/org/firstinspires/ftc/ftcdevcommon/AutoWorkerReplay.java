@@ -0,0 +1,121 @@
+package org.firstinspires.ftc.ftcdevcommon;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Consumer;
+
+// Replays a file written by AutoWorkerRecorder. Launch it like any other
+// AutoWorker with Threading.launchAsync(); it delivers the recorded
+// values in order, either at their original timing relative to the
+// start of the replay or, for benchmarking, as fast as possible.
+
+// Consumers may either poll getMostRecentValue(), as they would the
+// worker that produced the recording, or supply a listener that is
+// called on the replay thread for every value. call() returns when the
+// recording is exhausted or stopThread() is called. The replay beats
+// its heartbeat for every value and, in real time, at least every
+// MAX_WAIT_MS while it waits for the next value, so a gap in the
+// recording is not reported as a stall.
+public class AutoWorkerReplay<V> extends AutoWorker<Void> {
+
+    // --------- CLASS VARIABLES ----------
+    private static final String TAG = "AutoWorkerReplay";
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private static final long MAX_WAIT_MS = 100;
+
+    private final String recordingFilePath;
+    private final SampleCodec<V> codec;
+    private final boolean realTime;
+    private final Consumer<V> listener;
+
+    private volatile V mostRecentValue;
+    private volatile long replayedCount = 0;
+    private volatile long recordingStartMillis;
+
+    // --------- CONSTRUCTORS ----------
+    // If pRealTime is false the values are delivered as fast as possible.
+    public AutoWorkerReplay(String pRecordingFilePath, SampleCodec<V> pCodec, boolean pRealTime) {
+        this(pRecordingFilePath, pCodec, pRealTime, null);
+    }
+
+    // pListener may be null.
+    public AutoWorkerReplay(String pRecordingFilePath, SampleCodec<V> pCodec, boolean pRealTime, Consumer<V> pListener) {
+        recordingFilePath = pRecordingFilePath;
+        codec = pCodec;
+        realTime = pRealTime;
+        listener = pListener;
+    }
+
+    // --------- FUNCTIONS ----------
+    // Returns null until the first value has been replayed.
+    public V getMostRecentValue() {
+        return mostRecentValue;
+    }
+
+    public long getReplayedCount() {
+        return replayedCount;
+    }
+
+    // The wall-clock time at which the original recording started.
+    public long getRecordingStartMillis() {
+        return recordingStartMillis;
+    }
+
+    @Override
+    public Void call() throws InterruptedException {
+        try (DataInputStream input = new DataInputStream(new BufferedInputStream(new FileInputStream(recordingFilePath), BUFFER_SIZE))) {
+            if (input.readInt() != AutoWorkerRecorder.MAGIC)
+                throw new AutonomousRobotException(TAG, recordingFilePath + " is not an AutoWorker recording");
+            int version = input.readInt();
+            if (version != AutoWorkerRecorder.VERSION)
+                throw new AutonomousRobotException(TAG, "Unsupported recording version " + version + " in " + recordingFilePath);
+            recordingStartMillis = input.readLong();
+
+            long replayStartNanos = System.nanoTime();
+            while (!stopThreadRequested()) {
+                heartbeat();
+                long offsetNanos;
+                V value;
+                try {
+                    offsetNanos = input.readLong();
+                    value = codec.read(input);
+                } catch (EOFException eofx) {
+                    break; // end of the recording or a record cut off by a crash
+                }
+
+                if (realTime)
+                    waitUntil(replayStartNanos + offsetNanos);
+
+                mostRecentValue = value;
+                replayedCount++; // only the replay thread writes
+                if (listener != null)
+                    listener.accept(value);
+            }
+        } catch (IOException iox) {
+            throw new AutonomousRobotException(TAG, "Error reading " + recordingFilePath + ": " + iox);
+        }
+
+        return null;
+    }
+
+    // Sleeps for most of the interval and parks for the remainder so that
+    // values are delivered close to their original times.
+    private void waitUntil(long pDeadlineNanos) throws InterruptedException {
+        long remainingNanos;
+        while ((remainingNanos = pDeadlineNanos - System.nanoTime()) > 0) {
+            if (Thread.interrupted())
+                throw new InterruptedException();
+
+            if (remainingNanos > TimeUnit.MILLISECONDS.toNanos(2)) {
+                Thread.sleep(Math.min(TimeUnit.NANOSECONDS.toMillis(remainingNanos) - 1, MAX_WAIT_MS));
+                heartbeat();
+            } else
+                LockSupport.parkNanos(remainingNanos);
+        }
+    }
+}
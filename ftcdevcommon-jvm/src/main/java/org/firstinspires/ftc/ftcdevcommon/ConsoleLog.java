@@ -0,0 +1,11 @@
+package org.firstinspires.ftc.ftcdevcommon;
+
+// Adapter for the platform's console log, which is separate from
+// the log file written by RobotLogCommon: android.util.Log (logcat)
+// on the Robot Controller, System.out on a desktop JVM.
+public interface ConsoleLog {
+
+    void d(String pTag, String pMessage);
+
+    ConsoleLog STANDARD_OUT = (pTag, pMessage) -> System.out.println(pTag + ": " + pMessage);
+}
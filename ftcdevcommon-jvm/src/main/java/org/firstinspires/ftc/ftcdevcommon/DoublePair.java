@@ -0,0 +1,106 @@
+package org.firstinspires.ftc.ftcdevcommon;
+
+/**
+ * Primitive-specialized companion to {@link Pair} for a tuple of two doubles, e.g.
+ * (x, y) field coordinates, that avoids boxing. Provides the same equals(), hashCode()
+ * and toString() contract as Pair. For hot loops use the reusable
+ * {@link Mutable} variant.
+ */
+public class DoublePair {
+    public final double first;
+    public final double second;
+    /**
+     * Constructor for a DoublePair.
+     *
+     * @param first the first value in the DoublePair
+     * @param second the second value in the DoublePair
+     */
+    public DoublePair(double first, double second) {
+        this.first = first;
+        this.second = second;
+    }
+    /**
+     * Checks the two values for equality. Doubles are compared as by
+     * {@link Double#equals(Object)}.
+     *
+     * @param o the {@link DoublePair} to which this one is to be checked for equality
+     * @return true if both values of the DoublePair are considered equal
+     */
+    @Override
+    public boolean equals(Object o) {
+        if (!(o instanceof DoublePair)) {
+            return false;
+        }
+        DoublePair p = (DoublePair) o;
+        return Double.compare(p.first, first) == 0 && Double.compare(p.second, second) == 0;
+    }
+    /**
+     * Compute a hash code in the same way as {@link Pair#hashCode()}.
+     *
+     * @return a hashcode of the DoublePair
+     */
+    @Override
+    public int hashCode() {
+        return Double.hashCode(first) ^ Double.hashCode(second);
+    }
+    @Override
+    public String toString() {
+        return "DoublePair{" + first + " " + second + "}";
+    }
+    /**
+     * Convenience method for creating a DoublePair.
+     * @param a the first value in the DoublePair
+     * @param b the second value in the DoublePair
+     * @return a new DoublePair
+     */
+    public static DoublePair create(double a, double b) {
+        return new DoublePair(a, b);
+    }
+
+    /**
+     * Reusable, mutable DoublePair for hot loops, e.g. as an output parameter
+     * that is overwritten on every iteration. Because its contents may
+     * change, do not use it as a key in a hash-based collection; call
+     * {@link #toImmutable()} to keep a copy.
+     */
+    public static class Mutable {
+        public double first;
+        public double second;
+
+        public Mutable() {}
+
+        public Mutable(double first, double second) {
+            this.first = first;
+            this.second = second;
+        }
+
+        public Mutable set(double first, double second) {
+            this.first = first;
+            this.second = second;
+            return this;
+        }
+
+        public DoublePair toImmutable() {
+            return new DoublePair(first, second);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof Mutable)) {
+                return false;
+            }
+            Mutable p = (Mutable) o;
+            return Double.compare(p.first, first) == 0 && Double.compare(p.second, second) == 0;
+        }
+
+        @Override
+        public int hashCode() {
+            return Double.hashCode(first) ^ Double.hashCode(second);
+        }
+
+        @Override
+        public String toString() {
+            return "DoublePair.Mutable{" + first + " " + second + "}";
+        }
+    }
+}
@@ -0,0 +1,58 @@
+package org.firstinspires.ftc.ftcdevcommon;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+// Liveness signal for a worker thread, checked by a StallWatchdog.
+
+// The worker calls beat() once per loop iteration. A beat is a plain
+// increment of a field that only the worker touches followed by an
+// ordered (lazySet) store of the new count, i.e. no clock read, no
+// lock and no memory fence, so it costs a few nanoseconds. The
+// watchdog timestamps changes in the count with its own clock.
+
+// Only one thread at a time may call beat(). The beating thread is
+// recorded so that the watchdog can report its stack and, if requested,
+// interrupt it. When a different thread starts beating, e.g. because an
+// AutoWorker has been relaunched on a new Threading.launchAsync()
+// thread, it takes over the heartbeat and the count continues.
+public class Heartbeat {
+
+    private final String name;
+    private final AtomicLong publishedCount = new AtomicLong();
+    private long beatCount = 0; // owned by the beating thread
+    private Thread ownerThread; // owned by the beating thread; checked on every beat
+    private volatile Thread beatingThread; // published to the watchdog
+
+    // --------- CONSTRUCTORS ----------
+    public Heartbeat(String pName) {
+        name = pName;
+    }
+
+    // --------- FUNCTIONS ----------
+    public String getName() {
+        return name;
+    }
+
+    public void beat() {
+        // A stale ownerThread can only be some other thread, never this one,
+        // so a plain field is enough for the check.
+        Thread currentThread = Thread.currentThread();
+        if (currentThread != ownerThread) {
+            ownerThread = currentThread;
+            beatingThread = currentThread;
+            beatCount = publishedCount.get();
+        }
+        publishedCount.lazySet(++beatCount);
+    }
+
+    // The number of beats so far; 0 if the worker has not started.
+    public long getCount() {
+        return publishedCount.get();
+    }
+
+    // The thread that beat most recently, or null if the worker has not
+    // started. The thread may have ended.
+    public Thread getThread() {
+        return beatingThread;
+    }
+}
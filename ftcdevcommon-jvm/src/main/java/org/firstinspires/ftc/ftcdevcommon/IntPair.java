@@ -0,0 +1,106 @@
+package org.firstinspires.ftc.ftcdevcommon;
+
+/**
+ * Primitive-specialized companion to {@link Pair} for a tuple of two ints, e.g.
+ * (x, y) pixel coordinates, that avoids boxing. Provides the same equals(), hashCode()
+ * and toString() contract as Pair. For hot loops use the reusable
+ * {@link Mutable} variant.
+ */
+public class IntPair {
+    public final int first;
+    public final int second;
+    /**
+     * Constructor for an IntPair.
+     *
+     * @param first the first value in the IntPair
+     * @param second the second value in the IntPair
+     */
+    public IntPair(int first, int second) {
+        this.first = first;
+        this.second = second;
+    }
+    /**
+     * Checks the two values for equality. Doubles are compared as by
+     * {@link Double#equals(Object)}.
+     *
+     * @param o the {@link IntPair} to which this one is to be checked for equality
+     * @return true if both values of the IntPair are considered equal
+     */
+    @Override
+    public boolean equals(Object o) {
+        if (!(o instanceof IntPair)) {
+            return false;
+        }
+        IntPair p = (IntPair) o;
+        return p.first == first && p.second == second;
+    }
+    /**
+     * Compute a hash code in the same way as {@link Pair#hashCode()}.
+     *
+     * @return a hashcode of the IntPair
+     */
+    @Override
+    public int hashCode() {
+        return Integer.hashCode(first) ^ Integer.hashCode(second);
+    }
+    @Override
+    public String toString() {
+        return "IntPair{" + first + " " + second + "}";
+    }
+    /**
+     * Convenience method for creating an IntPair.
+     * @param a the first value in the IntPair
+     * @param b the second value in the IntPair
+     * @return a new IntPair
+     */
+    public static IntPair create(int a, int b) {
+        return new IntPair(a, b);
+    }
+
+    /**
+     * Reusable, mutable IntPair for hot loops, e.g. as an output parameter
+     * that is overwritten on every iteration. Because its contents may
+     * change, do not use it as a key in a hash-based collection; call
+     * {@link #toImmutable()} to keep a copy.
+     */
+    public static class Mutable {
+        public int first;
+        public int second;
+
+        public Mutable() {}
+
+        public Mutable(int first, int second) {
+            this.first = first;
+            this.second = second;
+        }
+
+        public Mutable set(int first, int second) {
+            this.first = first;
+            this.second = second;
+            return this;
+        }
+
+        public IntPair toImmutable() {
+            return new IntPair(first, second);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof Mutable)) {
+                return false;
+            }
+            Mutable p = (Mutable) o;
+            return p.first == first && p.second == second;
+        }
+
+        @Override
+        public int hashCode() {
+            return Integer.hashCode(first) ^ Integer.hashCode(second);
+        }
+
+        @Override
+        public String toString() {
+            return "IntPair.Mutable{" + first + " " + second + "}";
+        }
+    }
+}
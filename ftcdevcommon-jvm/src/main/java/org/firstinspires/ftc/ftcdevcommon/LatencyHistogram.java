@@ -0,0 +1,175 @@
+package org.firstinspires.ftc.ftcdevcommon;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+// Fixed-bucket, log-linear histogram of durations in nanoseconds.
+// Each power of two is divided into 8 linear sub-buckets so that any
+// recorded value is reported to within 12.5%. The full range of
+// positive long values fits in fewer than 500 buckets, all allocated
+// at construction.
+
+// record() is lock-free and allocation-free and may be called from
+// any number of threads. The read methods may run concurrently with
+// record() but then reflect a moment that is not exactly defined;
+// the same is true of getAndReset() with respect to samples recorded
+// while it runs - each sample is counted either in the returned
+// snapshot or in the histogram after the reset, never both.
+public class LatencyHistogram {
+
+    // --------- CLASS VARIABLES ----------
+    private static final int SUB_BUCKET_BITS = 3;
+    private static final int SUB_BUCKET_COUNT = 1 << SUB_BUCKET_BITS;
+    private static final int BUCKET_COUNT = (64 - SUB_BUCKET_BITS) * SUB_BUCKET_COUNT;
+
+    private final AtomicLongArray buckets = new AtomicLongArray(BUCKET_COUNT);
+    private final AtomicLong count = new AtomicLong();
+    private final AtomicLong sum = new AtomicLong();
+    private final AtomicLong max = new AtomicLong();
+
+    // --------- FUNCTIONS ----------
+    // Negative durations, which can only come from misuse of
+    // System.nanoTime(), are recorded as 0.
+    public void record(long pNanos) {
+        long nanos = Math.max(pNanos, 0);
+        buckets.incrementAndGet(bucketIndex(nanos));
+        count.incrementAndGet();
+        sum.addAndGet(nanos);
+
+        long currentMax;
+        while (nanos > (currentMax = max.get()))
+            if (max.compareAndSet(currentMax, nanos))
+                break;
+    }
+
+    public long getCount() {
+        return count.get();
+    }
+
+    public long getMaxNanos() {
+        return max.get();
+    }
+
+    public double getMeanNanos() {
+        long n = count.get();
+        return n == 0 ? 0.0 : (double) sum.get() / n;
+    }
+
+    // Returns an estimate of the duration at the given percentile (0..100):
+    // the midpoint of the bucket that contains it, but never more than the
+    // maximum recorded value.
+    public long getPercentileNanos(double pPercentile) {
+        long n = count.get();
+        if (n == 0)
+            return 0;
+
+        long rank = (long) Math.ceil(pPercentile / 100.0 * n);
+        rank = Math.max(1, Math.min(rank, n));
+        long cumulative = 0;
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            cumulative += buckets.get(i);
+            if (cumulative >= rank)
+                return Math.min(bucketMidpoint(i), max.get());
+        }
+        return max.get();
+    }
+
+    // Copies the current contents of this histogram into pDestination,
+    // replacing its previous contents. pDestination should not be in use
+    // by other threads.
+    public void copyTo(LatencyHistogram pDestination) {
+        for (int i = 0; i < BUCKET_COUNT; i++)
+            pDestination.buckets.set(i, buckets.get(i));
+        pDestination.count.set(count.get());
+        pDestination.sum.set(sum.get());
+        pDestination.max.set(max.get());
+    }
+
+    // Adds the contents of this histogram to pDestination.
+    public void addTo(LatencyHistogram pDestination) {
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            long bucketCount = buckets.get(i);
+            if (bucketCount != 0)
+                pDestination.buckets.addAndGet(i, bucketCount);
+        }
+        pDestination.count.addAndGet(count.get());
+        pDestination.sum.addAndGet(sum.get());
+
+        long sourceMax = max.get();
+        long currentMax;
+        while (sourceMax > (currentMax = pDestination.max.get()))
+            if (pDestination.max.compareAndSet(currentMax, sourceMax))
+                break;
+    }
+
+    // Moves the current contents of this histogram into pSnapshot, e.g.
+    // for per-match reporting, and leaves this histogram empty.
+    public void getAndReset(LatencyHistogram pSnapshot) {
+        long snapshotCount = 0;
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            long bucketCount = buckets.getAndSet(i, 0);
+            pSnapshot.buckets.set(i, bucketCount);
+            snapshotCount += bucketCount;
+        }
+
+        // Keep the count consistent with the buckets that were taken.
+        count.addAndGet(-snapshotCount);
+        pSnapshot.count.set(snapshotCount);
+        pSnapshot.sum.set(sum.getAndSet(0));
+        pSnapshot.max.set(max.getAndSet(0));
+    }
+
+    public void reset() {
+        for (int i = 0; i < BUCKET_COUNT; i++)
+            buckets.set(i, 0);
+        count.set(0);
+        sum.set(0);
+        max.set(0);
+    }
+
+    // Appends a compact summary in microseconds, e.g.
+    // n=1500 mean=812.4us p50=768.0us p99=2048.0us max=3121.7us
+    public void appendSummary(StringBuilder pBuffer) {
+        pBuffer.append("n=").append(getCount());
+        appendMicros(" mean=", getMeanNanos(), pBuffer);
+        appendMicros(" p50=", getPercentileNanos(50), pBuffer);
+        appendMicros(" p99=", getPercentileNanos(99), pBuffer);
+        appendMicros(" max=", getMaxNanos(), pBuffer);
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder buffer = new StringBuilder();
+        appendSummary(buffer);
+        return "LatencyHistogram{" + buffer + "}";
+    }
+
+    private static void appendMicros(String pLabel, double pNanos, StringBuilder pBuffer) {
+        // One decimal place without String.format.
+        long tenthsOfMicros = Math.round(pNanos / 100.0);
+        pBuffer.append(pLabel).append(tenthsOfMicros / 10).append('.').append(tenthsOfMicros % 10).append("us");
+    }
+
+    // Values below SUB_BUCKET_COUNT each have their own bucket; above that
+    // the bucket is selected by the position of the highest set bit and
+    // the next SUB_BUCKET_BITS bits.
+    private static int bucketIndex(long pValue) {
+        if (pValue < SUB_BUCKET_COUNT)
+            return (int) pValue;
+
+        int highestBit = 63 - Long.numberOfLeadingZeros(pValue);
+        int subBucket = (int) (pValue >>> (highestBit - SUB_BUCKET_BITS)) & (SUB_BUCKET_COUNT - 1);
+        return (highestBit - SUB_BUCKET_BITS + 1) * SUB_BUCKET_COUNT + subBucket;
+    }
+
+    private static long bucketMidpoint(int pIndex) {
+        if (pIndex < SUB_BUCKET_COUNT)
+            return pIndex;
+
+        int highestBit = pIndex / SUB_BUCKET_COUNT + SUB_BUCKET_BITS - 1;
+        int subBucket = pIndex % SUB_BUCKET_COUNT;
+        int shift = highestBit - SUB_BUCKET_BITS;
+        long lowerBound = ((long) (SUB_BUCKET_COUNT + subBucket)) << shift;
+        return lowerBound + ((1L << shift) >>> 1);
+    }
+}
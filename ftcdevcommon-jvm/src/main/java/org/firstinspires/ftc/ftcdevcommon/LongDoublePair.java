@@ -0,0 +1,106 @@
+package org.firstinspires.ftc.ftcdevcommon;
+
+/**
+ * Primitive-specialized companion to {@link Pair} for a long and a double, e.g.
+ * (timestamp, heading), that avoids boxing. Provides the same equals(), hashCode()
+ * and toString() contract as Pair. For hot loops use the reusable
+ * {@link Mutable} variant.
+ */
+public class LongDoublePair {
+    public final long first;
+    public final double second;
+    /**
+     * Constructor for a LongDoublePair.
+     *
+     * @param first the first value in the LongDoublePair
+     * @param second the second value in the LongDoublePair
+     */
+    public LongDoublePair(long first, double second) {
+        this.first = first;
+        this.second = second;
+    }
+    /**
+     * Checks the two values for equality. Doubles are compared as by
+     * {@link Double#equals(Object)}.
+     *
+     * @param o the {@link LongDoublePair} to which this one is to be checked for equality
+     * @return true if both values of the LongDoublePair are considered equal
+     */
+    @Override
+    public boolean equals(Object o) {
+        if (!(o instanceof LongDoublePair)) {
+            return false;
+        }
+        LongDoublePair p = (LongDoublePair) o;
+        return p.first == first && Double.compare(p.second, second) == 0;
+    }
+    /**
+     * Compute a hash code in the same way as {@link Pair#hashCode()}.
+     *
+     * @return a hashcode of the LongDoublePair
+     */
+    @Override
+    public int hashCode() {
+        return Long.hashCode(first) ^ Double.hashCode(second);
+    }
+    @Override
+    public String toString() {
+        return "LongDoublePair{" + first + " " + second + "}";
+    }
+    /**
+     * Convenience method for creating a LongDoublePair.
+     * @param a the first value in the LongDoublePair
+     * @param b the second value in the LongDoublePair
+     * @return a new LongDoublePair
+     */
+    public static LongDoublePair create(long a, double b) {
+        return new LongDoublePair(a, b);
+    }
+
+    /**
+     * Reusable, mutable LongDoublePair for hot loops, e.g. as an output parameter
+     * that is overwritten on every iteration. Because its contents may
+     * change, do not use it as a key in a hash-based collection; call
+     * {@link #toImmutable()} to keep a copy.
+     */
+    public static class Mutable {
+        public long first;
+        public double second;
+
+        public Mutable() {}
+
+        public Mutable(long first, double second) {
+            this.first = first;
+            this.second = second;
+        }
+
+        public Mutable set(long first, double second) {
+            this.first = first;
+            this.second = second;
+            return this;
+        }
+
+        public LongDoublePair toImmutable() {
+            return new LongDoublePair(first, second);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof Mutable)) {
+                return false;
+            }
+            Mutable p = (Mutable) o;
+            return p.first == first && Double.compare(p.second, second) == 0;
+        }
+
+        @Override
+        public int hashCode() {
+            return Long.hashCode(first) ^ Double.hashCode(second);
+        }
+
+        @Override
+        public String toString() {
+            return "LongDoublePair.Mutable{" + first + " " + second + "}";
+        }
+    }
+}
@@ -0,0 +1,160 @@
+package org.firstinspires.ftc.ftcdevcommon;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+// Named counters, gauges and latency histograms for measuring loop
+// rates, sensor latencies, retry counts and the like.
+
+// Look up each metric once, e.g. in a constructor, and keep the
+// reference; the updates themselves (Counter.increment(),
+// Gauge.set(), LatencyHistogram.record()) are lock-free and do not
+// allocate. Counters are striped (LongAdder) so that updates from
+// several threads do not contend.
+//
+//   private final MetricsRegistry.Counter imuRetries = MetricsRegistry.getInstance().counter("imu.retries");
+//   private final LatencyHistogram loopTime = MetricsRegistry.getInstance().histogram("teleop.loop");
+//   ...
+//   imuRetries.increment();
+//   loopTime.record(System.nanoTime() - loopStartNanos);
+
+// Use getSummary() for a compact one-line-per-metric report, e.g.
+// through RobotLogCommon or the periodic MetricsReporter, and
+// getSummaryAndReset() for per-match reporting.
+public class MetricsRegistry {
+
+    private static final String TAG = "MetricsRegistry";
+    private static final MetricsRegistry instance = new MetricsRegistry();
+
+    private final ConcurrentHashMap<String, Counter> counters = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, Gauge> gauges = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, LatencyHistogram> histograms = new ConcurrentHashMap<>();
+
+    // Reused by getSummaryAndReset(); guarded by this.
+    private final LatencyHistogram histogramSnapshot = new LatencyHistogram();
+
+    // The registry shared by the whole application.
+    public static MetricsRegistry getInstance() {
+        return instance;
+    }
+
+    // --------- FUNCTIONS ----------
+    // Each of the following returns the existing metric with the given
+    // name or creates it. A name may be used for only one kind of metric.
+    public Counter counter(String pName) {
+        checkName(pName, counters);
+        return counters.computeIfAbsent(pName, name -> new Counter());
+    }
+
+    public Gauge gauge(String pName) {
+        checkName(pName, gauges);
+        return gauges.computeIfAbsent(pName, name -> new Gauge());
+    }
+
+    public LatencyHistogram histogram(String pName) {
+        checkName(pName, histograms);
+        return histograms.computeIfAbsent(pName, name -> new LatencyHistogram());
+    }
+
+    // One line per metric, sorted by name, e.g.
+    //   counter imu.retries 3
+    //   gauge battery.volts 12.84
+    //   histogram teleop.loop n=1500 mean=812.4us p50=768.0us p99=2048.0us max=3121.7us
+    public synchronized String getSummary() {
+        return buildSummary(false);
+    }
+
+    // Same as getSummary() but resets the counters and histograms (gauges
+    // keep their last value) so that the next summary covers only the
+    // interval since this call.
+    public synchronized String getSummaryAndReset() {
+        return buildSummary(true);
+    }
+
+    // Resets the counters and histograms without reporting them.
+    public synchronized void reset() {
+        for (Counter counter : counters.values())
+            counter.reset();
+        for (LatencyHistogram histogram : histograms.values())
+            histogram.reset();
+    }
+
+    private String buildSummary(boolean pReset) {
+        StringBuilder summary = new StringBuilder();
+        for (Map.Entry<String, Counter> entry : new TreeMap<>(counters).entrySet()) {
+            long value = pReset ? entry.getValue().getAndReset() : entry.getValue().get();
+            summary.append("counter ").append(entry.getKey()).append(' ').append(value).append('\n');
+        }
+
+        for (Map.Entry<String, Gauge> entry : new TreeMap<>(gauges).entrySet())
+            summary.append("gauge ").append(entry.getKey()).append(' ').append(entry.getValue().get()).append('\n');
+
+        for (Map.Entry<String, LatencyHistogram> entry : new TreeMap<>(histograms).entrySet()) {
+            LatencyHistogram histogram = entry.getValue();
+            if (pReset) {
+                histogram.getAndReset(histogramSnapshot);
+                histogram = histogramSnapshot;
+            }
+            summary.append("histogram ").append(entry.getKey()).append(' ');
+            histogram.appendSummary(summary);
+            summary.append('\n');
+        }
+
+        return summary.toString();
+    }
+
+    private void checkName(String pName, Map<String, ?> pMetrics) {
+        if (pMetrics.containsKey(pName))
+            return;
+
+        if ((pMetrics != counters && counters.containsKey(pName)) ||
+                (pMetrics != gauges && gauges.containsKey(pName)) ||
+                (pMetrics != histograms && histograms.containsKey(pName)))
+            throw new AutonomousRobotException(TAG, "Metric " + pName + " is already registered as a different kind of metric");
+    }
+
+    // Monotonically increasing count of events, e.g. retries or frames.
+    public static class Counter {
+        private final LongAdder adder = new LongAdder();
+
+        private Counter() {}
+
+        public void increment() {
+            adder.increment();
+        }
+
+        public void add(long pDelta) {
+            adder.add(pDelta);
+        }
+
+        public long get() {
+            return adder.sum();
+        }
+
+        public long getAndReset() {
+            return adder.sumThenReset();
+        }
+
+        public void reset() {
+            adder.reset();
+        }
+    }
+
+    // The most recent value of a quantity, e.g. battery voltage.
+    public static class Gauge {
+        private final AtomicLong bits = new AtomicLong(Double.doubleToRawLongBits(0.0));
+
+        private Gauge() {}
+
+        public void set(double pValue) {
+            bits.lazySet(Double.doubleToRawLongBits(pValue));
+        }
+
+        public double get() {
+            return Double.longBitsToDouble(bits.get());
+        }
+    }
+}
@@ -0,0 +1,108 @@
+package org.firstinspires.ftc.ftcdevcommon;
+
+import java.util.Objects;
+
+/**
+ * Primitive-specialized companion to {@link Pair} for an object and a double, e.g.
+ * (label, confidence), that avoids boxing. Provides the same equals(), hashCode()
+ * and toString() contract as Pair. For hot loops use the reusable
+ * {@link Mutable} variant.
+ */
+public class ObjectDoublePair<F> {
+    public final F first;
+    public final double second;
+    /**
+     * Constructor for an ObjectDoublePair.
+     *
+     * @param first the first value in the ObjectDoublePair
+     * @param second the second value in the ObjectDoublePair
+     */
+    public ObjectDoublePair(F first, double second) {
+        this.first = first;
+        this.second = second;
+    }
+    /**
+     * Checks the two values for equality. Doubles are compared as by
+     * {@link Double#equals(Object)}.
+     *
+     * @param o the {@link ObjectDoublePair} to which this one is to be checked for equality
+     * @return true if both values of the ObjectDoublePair are considered equal
+     */
+    @Override
+    public boolean equals(Object o) {
+        if (!(o instanceof ObjectDoublePair)) {
+            return false;
+        }
+        ObjectDoublePair<?> p = (ObjectDoublePair<?>) o;
+        return Objects.equals(p.first, first) && Double.compare(p.second, second) == 0;
+    }
+    /**
+     * Compute a hash code in the same way as {@link Pair#hashCode()}.
+     *
+     * @return a hashcode of the ObjectDoublePair
+     */
+    @Override
+    public int hashCode() {
+        return (first == null ? 0 : first.hashCode()) ^ Double.hashCode(second);
+    }
+    @Override
+    public String toString() {
+        return "ObjectDoublePair{" + first + " " + second + "}";
+    }
+    /**
+     * Convenience method for creating an ObjectDoublePair.
+     * @param a the first value in the ObjectDoublePair
+     * @param b the second value in the ObjectDoublePair
+     * @return a new ObjectDoublePair
+     */
+    public static <F> ObjectDoublePair<F> create(F a, double b) {
+        return new ObjectDoublePair<>(a, b);
+    }
+
+    /**
+     * Reusable, mutable ObjectDoublePair for hot loops, e.g. as an output parameter
+     * that is overwritten on every iteration. Because its contents may
+     * change, do not use it as a key in a hash-based collection; call
+     * {@link #toImmutable()} to keep a copy.
+     */
+    public static class Mutable<F> {
+        public F first;
+        public double second;
+
+        public Mutable() {}
+
+        public Mutable(F first, double second) {
+            this.first = first;
+            this.second = second;
+        }
+
+        public Mutable<F> set(F first, double second) {
+            this.first = first;
+            this.second = second;
+            return this;
+        }
+
+        public ObjectDoublePair<F> toImmutable() {
+            return new ObjectDoublePair<>(first, second);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof Mutable)) {
+                return false;
+            }
+            Mutable<?> p = (Mutable<?>) o;
+            return Objects.equals(p.first, first) && Double.compare(p.second, second) == 0;
+        }
+
+        @Override
+        public int hashCode() {
+            return (first == null ? 0 : first.hashCode()) ^ Double.hashCode(second);
+        }
+
+        @Override
+        public String toString() {
+            return "ObjectDoublePair.Mutable{" + first + " " + second + "}";
+        }
+    }
+}
@@ -0,0 +1,36 @@
+package org.firstinspires.ftc.ftcdevcommon;
+
+import java.util.Iterator;
+import java.util.ServiceLoader;
+
+// The adapters for the platform the library is running on. A platform
+// module supplies its implementations as services, i.e. in
+// META-INF/services, and they are looked up once, when this class is
+// first used. ftcdevcommon supplies logcat and /sdcard/FIRST/TeamData;
+// a desktop JVM, which has no such module, gets standard output and the
+// current directory.
+public class Platform {
+
+    private static final ConsoleLog consoleLog = load(ConsoleLog.class, ConsoleLog.STANDARD_OUT);
+    private static final WorkingDirectoryAdapter workingDirectory =
+            load(WorkingDirectoryAdapter.class, WorkingDirectoryAdapter.CURRENT_DIRECTORY);
+
+    // --------- CONSTRUCTORS ----------
+    private Platform() {}
+
+    // --------- FUNCTIONS ----------
+    public static ConsoleLog getConsoleLog() {
+        return consoleLog;
+    }
+
+    public static String getWorkingDirectory() {
+        return workingDirectory.getWorkingDirectory();
+    }
+
+    // The class loader is given explicitly so that R8 can resolve the
+    // services when an app is minified.
+    private static <S> S load(Class<S> pService, S pDefault) {
+        Iterator<S> services = ServiceLoader.load(pService, pService.getClassLoader()).iterator();
+        return services.hasNext() ? services.next() : pDefault;
+    }
+}
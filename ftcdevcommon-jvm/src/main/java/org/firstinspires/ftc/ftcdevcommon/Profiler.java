@@ -0,0 +1,192 @@
+package org.firstinspires.ftc.ftcdevcommon;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+// Lightweight profiler for finding out where the time goes in a loop,
+// e.g. vision vs. hardware reads vs. logging.
+
+// Look up each named section once and keep the reference. Then time
+// it either with try-with-resources --
+//   private static final Profiler.Section visionSection = Profiler.section("vision");
+//   ...
+//   try (Profiler.Scope scope = visionSection.open()) {
+//       processFrame();
+//   }
+// or with explicit start/stop tokens --
+//   long visionToken = visionSection.start();
+//   processFrame();
+//   visionSection.stop(visionToken);
+
+// Durations are measured with System.nanoTime() and recorded into a
+// LatencyHistogram that belongs to the current thread, so threads
+// never contend with each other and nothing is allocated per sample.
+// A Scope is reused for each thread and section, so the same section
+// must not be opened again on the same thread before it is closed.
+
+// The profiler is disabled by default. When it is disabled start() and
+// open() cost a single volatile read. getReport() merges the per-thread
+// histograms and lists the sections in descending order of total time;
+// RobotLogCommon writes the report to the log on closeLog() if the
+// profiler is enabled and then calls reset(), so each log's report
+// covers only that OpMode.
+
+// Threads launched with Threading.launchAsync() are not reused, so the
+// state of a thread that has ended is merged into its section's total
+// by getReport() and reset() and then released.
+public class Profiler {
+
+    private static volatile boolean enabled = false;
+    private static final ConcurrentHashMap<String, Section> sections = new ConcurrentHashMap<>();
+
+    private static final Scope DISABLED_SCOPE = new Scope(null);
+
+    public static void setEnabled(boolean pEnabled) {
+        enabled = pEnabled;
+    }
+
+    public static boolean isEnabled() {
+        return enabled;
+    }
+
+    // Returns the existing section with the given name or creates it.
+    public static Section section(String pName) {
+        return sections.computeIfAbsent(pName, Section::new);
+    }
+
+    // Discards all recorded durations; the sections remain registered.
+    public static void reset() {
+        for (Section section : sections.values()) {
+            section.retireEndedThreads();
+            for (ThreadState threadState : section.threadStates)
+                threadState.histogram.reset();
+            section.endedThreadsHistogram.reset();
+        }
+    }
+
+    // Returns one line per section that has recorded at least one sample,
+    // in descending order of total time, or an empty string if there are
+    // none.
+    public static String getReport() {
+        List<ReportLine> reportLines = new ArrayList<>();
+        for (Section section : sections.values()) {
+            section.retireEndedThreads();
+            LatencyHistogram merged = new LatencyHistogram();
+            section.endedThreadsHistogram.addTo(merged);
+            for (ThreadState threadState : section.threadStates)
+                threadState.histogram.addTo(merged);
+
+            if (merged.getCount() != 0)
+                reportLines.add(new ReportLine(section.name, merged));
+        }
+
+        if (reportLines.isEmpty())
+            return "";
+
+        Collections.sort(reportLines, (a, b) -> Double.compare(b.totalNanos, a.totalNanos));
+        StringBuilder report = new StringBuilder("Profiler report (sorted by total time)");
+        for (ReportLine reportLine : reportLines) {
+            report.append('\n').append(reportLine.name).append(' ');
+            reportLine.histogram.appendSummary(report);
+        }
+
+        return report.toString();
+    }
+
+    public static class Section {
+        private final String name;
+
+        // One entry per live thread that has used this section; read only by
+        // getReport() and reset().
+        private final CopyOnWriteArrayList<ThreadState> threadStates = new CopyOnWriteArrayList<>();
+        private final ThreadLocal<ThreadState> threadState = new ThreadLocal<ThreadState>() {
+            @Override
+            protected ThreadState initialValue() {
+                ThreadState newState = new ThreadState();
+                threadStates.add(newState);
+                return newState;
+            }
+        };
+
+        // Samples from threads that have ended.
+        private final LatencyHistogram endedThreadsHistogram = new LatencyHistogram();
+
+        private Section(String pName) {
+            name = pName;
+        }
+
+        // A thread that has ended records nothing more, so its histogram can
+        // be merged without racing with record().
+        private synchronized void retireEndedThreads() {
+            for (ThreadState threadState : threadStates) {
+                if (!threadState.thread.isAlive()) {
+                    threadState.histogram.addTo(endedThreadsHistogram);
+                    threadStates.remove(threadState);
+                }
+            }
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        // Returns a token to pass to stop(), or 0 if the profiler is disabled.
+        public long start() {
+            return enabled ? System.nanoTime() : 0;
+        }
+
+        public void stop(long pToken) {
+            if (pToken == 0)
+                return;
+
+            long elapsed = System.nanoTime() - pToken;
+            threadState.get().histogram.record(elapsed);
+        }
+
+        public Scope open() {
+            if (!enabled)
+                return DISABLED_SCOPE;
+
+            Scope scope = threadState.get().scope;
+            scope.startNanos = System.nanoTime();
+            return scope;
+        }
+    }
+
+    // The result of Section.open(); close() records the elapsed time.
+    public static class Scope implements AutoCloseable {
+        private final LatencyHistogram histogram;
+        private long startNanos;
+
+        private Scope(LatencyHistogram pHistogram) {
+            histogram = pHistogram;
+        }
+
+        @Override
+        public void close() {
+            if (histogram != null)
+                histogram.record(System.nanoTime() - startNanos);
+        }
+    }
+
+    private static class ThreadState {
+        final Thread thread = Thread.currentThread(); // created on the owning thread
+        final LatencyHistogram histogram = new LatencyHistogram();
+        final Scope scope = new Scope(histogram);
+    }
+
+    private static class ReportLine {
+        final String name;
+        final LatencyHistogram histogram;
+        final double totalNanos;
+
+        ReportLine(String pName, LatencyHistogram pHistogram) {
+            name = pName;
+            histogram = pHistogram;
+            totalNanos = pHistogram.getMeanNanos() * pHistogram.getCount();
+        }
+    }
+}
@@ -0,0 +1,371 @@
+package org.firstinspires.ftc.ftcdevcommon;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Calendar;
+import java.util.HashMap;
+import java.util.List;
+import java.util.logging.Level;
+
+// Fast reader for post-match analysis of the log files written by
+// RobotLogCommon, e.g. FTCAutoLog_01301542_17005.txt and its rotations
+// .0 through .4, on the robot or on a laptop.
+
+// The files are memory-mapped, not read onto the heap, and parsed in
+// a single streaming pass that builds a compact index of primitive
+// arrays: for each entry its file, byte offset, timestamp, level and
+// tag. Queries by time range, level and tag are answered from the
+// index without reparsing; the text of an entry is decoded from the
+// mapped file only when it is requested. Files of any size are
+// supported.
+
+// Each entry starts with a line in the layout
+//   [yyyy-MM-dd HH:mm:ss.SSS] [LEVEL  ] TAG message
+// and extends to the start of the next entry, so multi-line messages
+// such as profiler and metrics reports are kept together.
+public class RobotLogReader {
+
+    // --------- CLASS VARIABLES ----------
+    private static final String TAG = "RobotLogReader";
+    private static final int SEGMENT_SHIFT = 30; // map files in 1 GB segments
+    private static final long SEGMENT_SIZE = 1L << SEGMENT_SHIFT;
+    private static final int HEADER_LENGTH = "[yyyy-MM-dd HH:mm:ss.SSS] [".length();
+    private static final int MAX_ROTATIONS = 5; // see the FileHandler in RobotLogCommon
+
+    private final List<MappedFile> files = new ArrayList<>();
+
+    private int entryCount = 0;
+    private byte[] entryFile = new byte[1024];
+    private long[] entryOffset = new long[1024];
+    private long[] entryTimestamp = new long[1024];
+    private int[] entryLevel = new int[1024];
+    private int[] entryTag = new int[1024];
+    private boolean timestampsSorted = true;
+
+    private final List<String> tags = new ArrayList<>();
+    private final HashMap<String, Integer> tagIds = new HashMap<>();
+    private final HashMap<String, Level> levelsByName = new HashMap<>();
+
+    // Parsing state for the timestamp: the epoch milliseconds of the
+    // start of the most recently parsed hour.
+    private final Calendar calendar = Calendar.getInstance();
+    private final byte[] lastHourKey = new byte[13]; // yyyy-MM-dd HH
+    private long lastHourMillis = Long.MIN_VALUE;
+
+    // --------- CONSTRUCTORS ----------
+    // Opens a log by the path that RobotLogCommon used to create it, e.g.
+    // /sdcard/FIRST/TeamData/FTCAutoLog_01301542_17005.txt. The rotated
+    // files, if any, are read from oldest (.4) to newest (.0).
+    public RobotLogReader(String pLogFilePath) throws IOException {
+        List<File> logFiles = new ArrayList<>();
+        for (int i = MAX_ROTATIONS - 1; i >= 0; i--) {
+            File rotatedFile = new File(pLogFilePath + "." + i);
+            if (rotatedFile.isFile())
+                logFiles.add(rotatedFile);
+        }
+
+        File logFile = new File(pLogFilePath);
+        if (logFile.isFile())
+            logFiles.add(logFile);
+
+        if (logFiles.isEmpty())
+            throw new AutonomousRobotException(TAG, "No log files found for " + pLogFilePath);
+
+        indexFiles(logFiles);
+    }
+
+    // Opens the given files, which must be in chronological order.
+    public RobotLogReader(List<File> pLogFiles) throws IOException {
+        if (pLogFiles.isEmpty())
+            throw new AutonomousRobotException(TAG, "No log files to read");
+
+        indexFiles(pLogFiles);
+    }
+
+    // --------- FUNCTIONS ----------
+    public int getEntryCount() {
+        return entryCount;
+    }
+
+    public long getTimestamp(int pEntry) {
+        return entryTimestamp[checkEntry(pEntry)];
+    }
+
+    public Level getLevel(int pEntry) {
+        return Level.parse(Integer.toString(entryLevel[checkEntry(pEntry)]));
+    }
+
+    public String getTag(int pEntry) {
+        return tags.get(entryTag[checkEntry(pEntry)]);
+    }
+
+    // The complete text of the entry including the timestamp and level,
+    // without the final line separator.
+    public String getText(int pEntry) {
+        long start = entryOffset[checkEntry(pEntry)];
+        long end = getEntryEnd(pEntry);
+        MappedFile file = files.get(entryFile[pEntry]);
+        while (end > start && isLineEnd(file.get(end - 1)))
+            end--;
+        return file.decode(start, end);
+    }
+
+    // The text of the entry after the tag.
+    public String getMessage(int pEntry) {
+        String text = getText(pEntry);
+        int tagStart = text.indexOf("] ", HEADER_LENGTH);
+        int messageStart = tagStart + 2 + getTag(pEntry).length();
+        return messageStart >= text.length() ? "" : text.substring(messageStart).trim();
+    }
+
+    // Returns the indexes of the entries, in order, that satisfy all of
+    // the following conditions --
+    //   pFromMillis <= timestamp < pToMillis (use Long.MIN_VALUE and
+    //     Long.MAX_VALUE for an open range),
+    //   level at least as severe as pMinimumLevel (null for any level),
+    //   tag equal to pTag (null for any tag).
+    // For example, every SEVERE entry --
+    //   query(Long.MIN_VALUE, Long.MAX_VALUE, Level.SEVERE, null)
+    public int[] query(long pFromMillis, long pToMillis, Level pMinimumLevel, String pTag) {
+        int tagId = -1;
+        if (pTag != null) {
+            Integer id = tagIds.get(pTag);
+            if (id == null)
+                return new int[0];
+            tagId = id;
+        }
+
+        int minimumLevel = pMinimumLevel == null ? Integer.MIN_VALUE : pMinimumLevel.intValue();
+        int first = 0;
+        int last = entryCount;
+        if (timestampsSorted) {
+            first = firstEntryAtOrAfter(pFromMillis);
+            last = firstEntryAtOrAfter(pToMillis);
+        }
+
+        int[] matches = new int[Math.max(0, last - first)];
+        int matchCount = 0;
+        for (int i = first; i < last; i++) {
+            if (entryTimestamp[i] < pFromMillis || entryTimestamp[i] >= pToMillis)
+                continue;
+            if (entryLevel[i] < minimumLevel || (tagId != -1 && entryTag[i] != tagId))
+                continue;
+            matches[matchCount++] = i;
+        }
+
+        return Arrays.copyOf(matches, matchCount);
+    }
+
+    // The distinct tags in the log in order of first appearance.
+    public List<String> getTags() {
+        return new ArrayList<>(tags);
+    }
+
+    private void indexFiles(List<File> pLogFiles) throws IOException {
+        if (pLogFiles.size() > Byte.MAX_VALUE)
+            throw new AutonomousRobotException(TAG, "Too many log files: " + pLogFiles.size());
+
+        for (File logFile : pLogFiles) {
+            MappedFile mappedFile = new MappedFile(logFile);
+            files.add(mappedFile);
+            indexFile(mappedFile, (byte) (files.size() - 1));
+        }
+    }
+
+    private void indexFile(MappedFile pFile, byte pFileIndex) {
+        long lineStart = 0;
+        long length = pFile.length;
+        while (lineStart < length) {
+            indexLineIfEntry(pFile, pFileIndex, lineStart);
+
+            long position = lineStart;
+            while (position < length && pFile.get(position) != '\n')
+                position++;
+            lineStart = position + 1;
+        }
+    }
+
+    // A line that does not start with a well-formed header is a
+    // continuation of the previous entry.
+    private void indexLineIfEntry(MappedFile pFile, byte pFileIndex, long pLineStart) {
+        if (pLineStart + HEADER_LENGTH + 2 > pFile.length || pFile.get(pLineStart) != '[' ||
+                pFile.get(pLineStart + 24) != ']' || pFile.get(pLineStart + 26) != '[')
+            return;
+
+        long timestamp = parseTimestamp(pFile, pLineStart + 1);
+        if (timestamp == Long.MIN_VALUE)
+            return;
+
+        // Level, padded with spaces, up to the closing ']'.
+        long levelStart = pLineStart + HEADER_LENGTH;
+        long levelEnd = levelStart;
+        while (levelEnd < pFile.length && pFile.get(levelEnd) != ']' && pFile.get(levelEnd) != '\n')
+            levelEnd++;
+        if (levelEnd >= pFile.length || pFile.get(levelEnd) != ']')
+            return;
+
+        Level level = getLevel(pFile.decode(levelStart, levelEnd).trim());
+        if (level == null)
+            return;
+
+        // Tag: the first word after "] ".
+        long tagStart = levelEnd + 2;
+        long tagEnd = tagStart;
+        while (tagEnd < pFile.length && !isWhitespace(pFile.get(tagEnd)))
+            tagEnd++;
+        String tag = tagStart < tagEnd ? pFile.decode(tagStart, tagEnd) : "";
+
+        addEntry(pFileIndex, pLineStart, timestamp, level.intValue(), getTagId(tag));
+    }
+
+    private void addEntry(byte pFileIndex, long pOffset, long pTimestamp, int pLevel, int pTagId) {
+        if (entryCount == entryOffset.length) {
+            int newCapacity = entryCount * 2;
+            entryFile = Arrays.copyOf(entryFile, newCapacity);
+            entryOffset = Arrays.copyOf(entryOffset, newCapacity);
+            entryTimestamp = Arrays.copyOf(entryTimestamp, newCapacity);
+            entryLevel = Arrays.copyOf(entryLevel, newCapacity);
+            entryTag = Arrays.copyOf(entryTag, newCapacity);
+        }
+
+        if (entryCount != 0 && pTimestamp < entryTimestamp[entryCount - 1])
+            timestampsSorted = false;
+
+        entryFile[entryCount] = pFileIndex;
+        entryOffset[entryCount] = pOffset;
+        entryTimestamp[entryCount] = pTimestamp;
+        entryLevel[entryCount] = pLevel;
+        entryTag[entryCount] = pTagId;
+        entryCount++;
+    }
+
+    // Parses yyyy-MM-dd HH:mm:ss.SSS in local time; returns Long.MIN_VALUE
+    // if the text is not a timestamp. The Calendar is consulted only when
+    // the hour changes.
+    private long parseTimestamp(MappedFile pFile, long pStart) {
+        for (int i = 0; i < 23; i++) {
+            byte b = pFile.get(pStart + i);
+            boolean separator = i == 4 || i == 7 || i == 10 || i == 13 || i == 16 || i == 19;
+            if (!separator && (b < '0' || b > '9'))
+                return Long.MIN_VALUE;
+        }
+
+        boolean sameHour = lastHourMillis != Long.MIN_VALUE;
+        for (int i = 0; i < lastHourKey.length && sameHour; i++)
+            sameHour = lastHourKey[i] == pFile.get(pStart + i);
+
+        if (!sameHour) {
+            for (int i = 0; i < lastHourKey.length; i++)
+                lastHourKey[i] = pFile.get(pStart + i);
+            calendar.clear();
+            calendar.set(digits(pFile, pStart, 4), digits(pFile, pStart + 5, 2) - 1, digits(pFile, pStart + 8, 2),
+                    digits(pFile, pStart + 11, 2), 0, 0);
+            lastHourMillis = calendar.getTimeInMillis();
+        }
+
+        return lastHourMillis + digits(pFile, pStart + 14, 2) * 60000L +
+                digits(pFile, pStart + 17, 2) * 1000L + digits(pFile, pStart + 20, 3);
+    }
+
+    private static int digits(MappedFile pFile, long pStart, int pCount) {
+        int value = 0;
+        for (int i = 0; i < pCount; i++)
+            value = value * 10 + (pFile.get(pStart + i) - '0');
+        return value;
+    }
+
+    // Level names are written localized; Level.parse() accepts both the
+    // standard and the localized names.
+    private Level getLevel(String pLevelName) {
+        if (levelsByName.containsKey(pLevelName))
+            return levelsByName.get(pLevelName);
+
+        Level level;
+        try {
+            level = Level.parse(pLevelName);
+        } catch (IllegalArgumentException ex) {
+            level = null;
+        }
+        levelsByName.put(pLevelName, level);
+        return level;
+    }
+
+    private int getTagId(String pTag) {
+        Integer id = tagIds.get(pTag);
+        if (id != null)
+            return id;
+
+        tags.add(pTag);
+        tagIds.put(pTag, tags.size() - 1);
+        return tags.size() - 1;
+    }
+
+    private int firstEntryAtOrAfter(long pMillis) {
+        int low = 0;
+        int high = entryCount;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (entryTimestamp[middle] < pMillis)
+                low = middle + 1;
+            else
+                high = middle;
+        }
+        return low;
+    }
+
+    private long getEntryEnd(int pEntry) {
+        if (pEntry + 1 < entryCount && entryFile[pEntry + 1] == entryFile[pEntry])
+            return entryOffset[pEntry + 1];
+        return files.get(entryFile[pEntry]).length;
+    }
+
+    private int checkEntry(int pEntry) {
+        if (pEntry < 0 || pEntry >= entryCount)
+            throw new AutonomousRobotException(TAG, "Entry " + pEntry + " is out of range for " + entryCount + " entries");
+        return pEntry;
+    }
+
+    private static boolean isLineEnd(byte pByte) {
+        return pByte == '\n' || pByte == '\r';
+    }
+
+    private static boolean isWhitespace(byte pByte) {
+        return pByte == ' ' || pByte == '\t' || isLineEnd(pByte);
+    }
+
+    // A read-only file mapped in segments of at most SEGMENT_SIZE bytes,
+    // since a single MappedByteBuffer is limited to 2 GB.
+    private static class MappedFile {
+        final long length;
+        final MappedByteBuffer[] segments;
+
+        MappedFile(File pFile) throws IOException {
+            try (RandomAccessFile randomAccessFile = new RandomAccessFile(pFile, "r");
+                 FileChannel channel = randomAccessFile.getChannel()) {
+                length = channel.size();
+                segments = new MappedByteBuffer[(int) ((length + SEGMENT_SIZE - 1) >>> SEGMENT_SHIFT)];
+                for (int i = 0; i < segments.length; i++) {
+                    long segmentStart = (long) i << SEGMENT_SHIFT;
+                    segments[i] = channel.map(FileChannel.MapMode.READ_ONLY, segmentStart, Math.min(SEGMENT_SIZE, length - segmentStart));
+                }
+            }
+        }
+
+        byte get(long pPosition) {
+            return segments[(int) (pPosition >>> SEGMENT_SHIFT)].get((int) (pPosition & (SEGMENT_SIZE - 1)));
+        }
+
+        String decode(long pStart, long pEnd) {
+            byte[] bytes = new byte[(int) (pEnd - pStart)];
+            for (int i = 0; i < bytes.length; i++)
+                bytes[i] = get(pStart + i);
+            return new String(bytes, StandardCharsets.UTF_8);
+        }
+    }
+}
@@ -0,0 +1,45 @@
+package org.firstinspires.ftc.ftcdevcommon;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
+// Converts the values produced by an AutoWorker to and from the
+// compact binary form used by AutoWorkerRecorder and AutoWorkerReplay.
+public interface SampleCodec<V> {
+
+    void write(V pValue, DataOutput pOutput) throws IOException;
+
+    V read(DataInput pInput) throws IOException;
+
+    // e.g. an IMU heading
+    SampleCodec<Double> DOUBLE = new SampleCodec<Double>() {
+        @Override
+        public void write(Double pValue, DataOutput pOutput) throws IOException {
+            pOutput.writeDouble(pValue);
+        }
+
+        @Override
+        public Double read(DataInput pInput) throws IOException {
+            return pInput.readDouble();
+        }
+    };
+
+    // e.g. all three IMU angles, or a set of frame metadata values
+    SampleCodec<double[]> DOUBLE_ARRAY = new SampleCodec<double[]>() {
+        @Override
+        public void write(double[] pValue, DataOutput pOutput) throws IOException {
+            pOutput.writeInt(pValue.length);
+            for (double value : pValue)
+                pOutput.writeDouble(value);
+        }
+
+        @Override
+        public double[] read(DataInput pInput) throws IOException {
+            double[] values = new double[pInput.readInt()];
+            for (int i = 0; i < values.length; i++)
+                values[i] = pInput.readDouble();
+            return values;
+        }
+    };
+}
@@ -23,6 +23,22 @@ public class Threading {
     // https://docs.oracle.com/javase/7/docs/api/java/util/concurrent/ExecutorService.html#shutdownNow()
     public static <R> CompletableFuture<R> launchAsync(Callable<R> pCallable) {
         ExecutorService singleExecutorService = Executors.newSingleThreadExecutor(); //##!! CRUCIAL
+        return launchAsync(pCallable, singleExecutorService);
+    }
+
+    // Same as launchAsync() but the Callable runs on a daemon thread, which
+    // does not keep the JVM alive. For persistent background threads such as
+    // the LogWriter in RobotLogCommon.
+    public static <R> CompletableFuture<R> launchDaemonAsync(Callable<R> pCallable) {
+        ExecutorService singleExecutorService = Executors.newSingleThreadExecutor(runnable -> {
+            Thread daemonThread = Executors.defaultThreadFactory().newThread(runnable);
+            daemonThread.setDaemon(true);
+            return daemonThread;
+        });
+        return launchAsync(pCallable, singleExecutorService);
+    }
+
+    private static <R> CompletableFuture<R> launchAsync(Callable<R> pCallable, ExecutorService singleExecutorService) {
         CompletableFuture<R> cf = new CompletableFuture<>();
         cf.whenComplete((x,y) -> singleExecutorService.shutdownNow());
         CompletableFuture.runAsync(() -> {
@@ -0,0 +1,455 @@
+package org.firstinspires.ftc.ftcdevcommon;
+
+import java.util.concurrent.locks.StampedLock;
+
+// Fixed-capacity ring buffer of timestamped samples, e.g. IMU headings
+// or distance sensor readings, backed by primitive arrays. Once the
+// buffer is full each new sample replaces the oldest one.
+
+// Appending is O(1) and maintains, over the samples currently in the
+// buffer, a rolling mean and variance (Welford's method adapted for a
+// sliding window) and the minimum and maximum (monotonic queues of
+// sample sequence numbers). The median of the most recent samples and
+// statistics over a time window (found by binary search, since
+// timestamps may not decrease) are computed on request. Nothing is
+// allocated after construction.
+
+// Timestamps are in whatever unit the caller chooses, e.g.
+// System.nanoTime() or TimeStamp.currentTimeMillis().
+
+// By default a buffer must be confined to a single thread. A buffer
+// constructed in shared mode supports a single writer, typically an
+// AutoWorker, and any number of readers. The writer calls append() as
+// usual. Readers do not query the shared buffer directly; instead they
+// call getLatest() or copy the buffer into their own unshared buffer of
+// the same capacity with copyTo() and query the copy. Readers use an
+// optimistic read, which does not block the writer, and retry it a few
+// times if the writer was active during the copy. Only if every attempt
+// overlaps an append() does the reader take a read lock, and then the
+// writer waits for the copy to finish.
+public class TimeSeriesBuffer {
+
+    // --------- CLASS VARIABLES ----------
+    private static final String TAG = "TimeSeriesBuffer";
+
+    // The rolling variance accumulates rounding error as samples are
+    // replaced, so it is recomputed from scratch after this many complete
+    // passes through the buffer.
+    private static final int RECOMPUTE_INTERVAL_PASSES = 64;
+
+    // Optimistic reads attempted by getLatest() and copyTo() before they
+    // fall back to a read lock.
+    private static final int OPTIMISTIC_READ_ATTEMPTS = 4;
+
+    private final int capacity;
+    private final boolean shared;
+    private final StampedLock lock;
+
+    private final long[] timestamps;
+    private final double[] values;
+    private int head = 0; // index of the next write
+    private int count = 0;
+    private long appendCount = 0; // sequence number of the next sample
+
+    private double mean = 0.0;
+    private double m2 = 0.0; // sum of squared differences from the mean
+
+    // Monotonic queues of sequence numbers; the front of minQueue is the
+    // sequence number of the minimum value in the buffer.
+    private final long[] minQueue;
+    private int minQueueHead = 0;
+    private int minQueueSize = 0;
+    private final long[] maxQueue;
+    private int maxQueueHead = 0;
+    private int maxQueueSize = 0;
+
+    private final double[] medianScratch;
+
+    // --------- CONSTRUCTORS ----------
+    public TimeSeriesBuffer(int pCapacity) {
+        this(pCapacity, false);
+    }
+
+    public TimeSeriesBuffer(int pCapacity, boolean pShared) {
+        if (pCapacity <= 0)
+            throw new AutonomousRobotException(TAG, "Capacity must be greater than 0");
+
+        capacity = pCapacity;
+        shared = pShared;
+        lock = pShared ? new StampedLock() : null;
+        timestamps = new long[pCapacity];
+        values = new double[pCapacity];
+        minQueue = new long[pCapacity];
+        maxQueue = new long[pCapacity];
+        medianScratch = new double[pCapacity];
+    }
+
+    // --------- FUNCTIONS ----------
+    public int capacity() {
+        return capacity;
+    }
+
+    public int size() {
+        return count;
+    }
+
+    public boolean isEmpty() {
+        return count == 0;
+    }
+
+    // Adds a sample, replacing the oldest sample if the buffer is full.
+    // In shared mode only one thread may call this method.
+    public void append(long pTimestamp, double pValue) {
+        if (count != 0 && pTimestamp < timestamps[physicalIndex(count - 1)])
+            throw new AutonomousRobotException(TAG, "Timestamp " + pTimestamp + " is earlier than the latest timestamp");
+
+        if (!shared) {
+            appendSample(pTimestamp, pValue);
+            return;
+        }
+
+        long stamp = lock.writeLock();
+        try {
+            appendSample(pTimestamp, pValue);
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    public void clear() {
+        if (!shared) {
+            clearSamples();
+            return;
+        }
+
+        long stamp = lock.writeLock();
+        try {
+            clearSamples();
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    // Samples are indexed from 0 (the oldest) to size() - 1 (the latest).
+    public long getTimestamp(int pIndex) {
+        return timestamps[physicalIndex(checkIndex(pIndex))];
+    }
+
+    public double getValue(int pIndex) {
+        return values[physicalIndex(checkIndex(pIndex))];
+    }
+
+    public long getLatestTimestamp() {
+        return getTimestamp(count - 1);
+    }
+
+    public double getLatestValue() {
+        return getValue(count - 1);
+    }
+
+    // The following statistics cover all of the samples in the buffer;
+    // they return NaN if the buffer is empty.
+    public double getMean() {
+        return count == 0 ? Double.NaN : mean;
+    }
+
+    // Sample variance.
+    public double getVariance() {
+        if (count == 0)
+            return Double.NaN;
+        return count == 1 ? 0.0 : m2 / (count - 1);
+    }
+
+    public double getStandardDeviation() {
+        return Math.sqrt(getVariance());
+    }
+
+    public double getMin() {
+        return count == 0 ? Double.NaN : values[(int) (minQueue[minQueueHead] % capacity)];
+    }
+
+    public double getMax() {
+        return count == 0 ? Double.NaN : values[(int) (maxQueue[maxQueueHead] % capacity)];
+    }
+
+    // Median of the most recent pWindowSize samples (or of all of the
+    // samples if there are fewer). O(pWindowSize) on average.
+    public double getMedian(int pWindowSize) {
+        if (pWindowSize <= 0 || pWindowSize > capacity)
+            throw new AutonomousRobotException(TAG, "Median window size " + pWindowSize + " is not in the range 1.." + capacity);
+
+        int windowSize = Math.min(pWindowSize, count);
+        if (windowSize == 0)
+            return Double.NaN;
+
+        for (int i = 0; i < windowSize; i++)
+            medianScratch[i] = values[physicalIndex(count - windowSize + i)];
+
+        int middle = windowSize / 2;
+        double upper = select(medianScratch, windowSize, middle);
+        if ((windowSize & 1) == 1)
+            return upper;
+
+        // For an even window the lower middle value is the maximum of the
+        // partition to the left of the upper middle value.
+        double lower = medianScratch[0];
+        for (int i = 1; i < middle; i++)
+            lower = Math.max(lower, medianScratch[i]);
+        return (lower + upper) / 2.0;
+    }
+
+    // The following statistics cover the samples whose timestamps are
+    // at or after pStartTimestamp; they return NaN if there are none.
+    public int getCountSince(long pStartTimestamp) {
+        return count - firstIndexAtOrAfter(pStartTimestamp);
+    }
+
+    public double getMeanSince(long pStartTimestamp) {
+        int first = firstIndexAtOrAfter(pStartTimestamp);
+        if (first == count)
+            return Double.NaN;
+
+        double sum = 0.0;
+        for (int i = first; i < count; i++)
+            sum += values[physicalIndex(i)];
+        return sum / (count - first);
+    }
+
+    public double getMinSince(long pStartTimestamp) {
+        int first = firstIndexAtOrAfter(pStartTimestamp);
+        if (first == count)
+            return Double.NaN;
+
+        double min = Double.POSITIVE_INFINITY;
+        for (int i = first; i < count; i++)
+            min = Math.min(min, values[physicalIndex(i)]);
+        return min;
+    }
+
+    public double getMaxSince(long pStartTimestamp) {
+        int first = firstIndexAtOrAfter(pStartTimestamp);
+        if (first == count)
+            return Double.NaN;
+
+        double max = Double.NEGATIVE_INFINITY;
+        for (int i = first; i < count; i++)
+            max = Math.max(max, values[physicalIndex(i)]);
+        return max;
+    }
+
+    // Returns the index of the first sample whose timestamp is at or after
+    // pTimestamp, or size() if there is none.
+    public int firstIndexAtOrAfter(long pTimestamp) {
+        int low = 0;
+        int high = count;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (timestamps[physicalIndex(middle)] < pTimestamp)
+                low = middle + 1;
+            else
+                high = middle;
+        }
+        return low;
+    }
+
+    // For readers of a shared buffer: copies the latest sample into
+    // pLatest. Returns false if the buffer is empty.
+    public boolean getLatest(LongDoublePair.Mutable pLatest) {
+        if (!shared)
+            return readLatest(pLatest);
+
+        for (int i = 0; i < OPTIMISTIC_READ_ATTEMPTS; i++) {
+            long stamp = lock.tryOptimisticRead();
+            if (stamp == 0)
+                continue; // the writer holds the lock
+            boolean notEmpty = readLatest(pLatest);
+            if (lock.validate(stamp))
+                return notEmpty;
+        }
+
+        long stamp = lock.readLock();
+        try {
+            return readLatest(pLatest);
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    // For readers of a shared buffer: replaces the contents of pSnapshot,
+    // which must have the same capacity and must not itself be shared,
+    // with a consistent copy of this buffer.
+    public void copyTo(TimeSeriesBuffer pSnapshot) {
+        if (pSnapshot.capacity != capacity || pSnapshot.shared)
+            throw new AutonomousRobotException(TAG, "Snapshot must be an unshared buffer with capacity " + capacity);
+
+        if (!shared) {
+            copyState(pSnapshot);
+            return;
+        }
+
+        for (int i = 0; i < OPTIMISTIC_READ_ATTEMPTS; i++) {
+            long stamp = lock.tryOptimisticRead();
+            if (stamp == 0)
+                continue; // the writer holds the lock
+            copyState(pSnapshot);
+            if (lock.validate(stamp))
+                return;
+        }
+
+        long stamp = lock.readLock();
+        try {
+            copyState(pSnapshot);
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    private void appendSample(long pTimestamp, double pValue) {
+        long sequence = appendCount;
+        if (count == capacity) {
+            // Replace the oldest sample.
+            double removed = values[head];
+            double oldMean = mean;
+            mean += (pValue - removed) / count;
+            m2 += (pValue - removed) * (pValue - mean + removed - oldMean);
+            if (m2 < 0.0)
+                m2 = 0.0;
+
+            long removedSequence = sequence - capacity;
+            if (minQueue[minQueueHead] == removedSequence) {
+                minQueueHead = (minQueueHead + 1) % capacity;
+                minQueueSize--;
+            }
+            if (maxQueue[maxQueueHead] == removedSequence) {
+                maxQueueHead = (maxQueueHead + 1) % capacity;
+                maxQueueSize--;
+            }
+        } else {
+            count++;
+            double delta = pValue - mean;
+            mean += delta / count;
+            m2 += delta * (pValue - mean);
+        }
+
+        timestamps[head] = pTimestamp;
+        values[head] = pValue;
+        head = (head + 1) % capacity;
+        appendCount++;
+
+        while (minQueueSize != 0 && values[(int) (minQueue[(minQueueHead + minQueueSize - 1) % capacity] % capacity)] >= pValue)
+            minQueueSize--;
+        minQueue[(minQueueHead + minQueueSize) % capacity] = sequence;
+        minQueueSize++;
+
+        while (maxQueueSize != 0 && values[(int) (maxQueue[(maxQueueHead + maxQueueSize - 1) % capacity] % capacity)] <= pValue)
+            maxQueueSize--;
+        maxQueue[(maxQueueHead + maxQueueSize) % capacity] = sequence;
+        maxQueueSize++;
+
+        if (head == 0 && (appendCount / capacity) % RECOMPUTE_INTERVAL_PASSES == 0)
+            recomputeMeanAndVariance();
+    }
+
+    private void recomputeMeanAndVariance() {
+        double sum = 0.0;
+        for (int i = 0; i < count; i++)
+            sum += values[i];
+        mean = sum / count;
+
+        double squares = 0.0;
+        for (int i = 0; i < count; i++) {
+            double delta = values[i] - mean;
+            squares += delta * delta;
+        }
+        m2 = squares;
+    }
+
+    private void clearSamples() {
+        head = 0;
+        count = 0;
+        appendCount = 0;
+        mean = 0.0;
+        m2 = 0.0;
+        minQueueHead = 0;
+        minQueueSize = 0;
+        maxQueueHead = 0;
+        maxQueueSize = 0;
+    }
+
+    private boolean readLatest(LongDoublePair.Mutable pLatest) {
+        int latestCount = count;
+        if (latestCount == 0)
+            return false;
+
+        int latest = (head + capacity - 1) % capacity;
+        pLatest.set(timestamps[latest], values[latest]);
+        return true;
+    }
+
+    // Copies whole arrays so that an inconsistent set of indices read
+    // during an optimistic read can never cause an exception.
+    private void copyState(TimeSeriesBuffer pSnapshot) {
+        System.arraycopy(timestamps, 0, pSnapshot.timestamps, 0, capacity);
+        System.arraycopy(values, 0, pSnapshot.values, 0, capacity);
+        System.arraycopy(minQueue, 0, pSnapshot.minQueue, 0, capacity);
+        System.arraycopy(maxQueue, 0, pSnapshot.maxQueue, 0, capacity);
+        pSnapshot.head = head;
+        pSnapshot.count = count;
+        pSnapshot.appendCount = appendCount;
+        pSnapshot.mean = mean;
+        pSnapshot.m2 = m2;
+        pSnapshot.minQueueHead = minQueueHead;
+        pSnapshot.minQueueSize = minQueueSize;
+        pSnapshot.maxQueueHead = maxQueueHead;
+        pSnapshot.maxQueueSize = maxQueueSize;
+    }
+
+    private int checkIndex(int pIndex) {
+        if (pIndex < 0 || pIndex >= count)
+            throw new AutonomousRobotException(TAG, "Index " + pIndex + " is out of range for " + count + " samples");
+        return pIndex;
+    }
+
+    // Converts a logical index (0 = oldest) into an array index.
+    private int physicalIndex(int pIndex) {
+        return (head - count + pIndex + capacity) % capacity;
+    }
+
+    // Quickselect: partially sorts the first pLength elements of pArray so
+    // that the element at pK is in its sorted position, with no larger
+    // element to its left, and returns it.
+    private static double select(double[] pArray, int pLength, int pK) {
+        int left = 0;
+        int right = pLength - 1;
+        while (left < right) {
+            double pivot = pArray[(left + right) >>> 1];
+            int i = left;
+            int j = right;
+            while (i <= j) {
+                while (pArray[i] < pivot)
+                    i++;
+                while (pArray[j] > pivot)
+                    j--;
+                if (i <= j) {
+                    double temp = pArray[i];
+                    pArray[i] = pArray[j];
+                    pArray[j] = temp;
+                    i++;
+                    j--;
+                }
+            }
+            if (pK <= j)
+                right = j;
+            else if (pK >= i)
+                left = i;
+            else
+                break;
+        }
+        return pArray[pK];
+    }
+
+    @Override
+    public String toString() {
+        return "TimeSeriesBuffer{" + count + "/" + capacity + " mean " + getMean() + " min " + getMin() + " max " + getMax() + "}";
+    }
+}
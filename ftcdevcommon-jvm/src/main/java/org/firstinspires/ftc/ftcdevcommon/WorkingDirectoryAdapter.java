@@ -0,0 +1,11 @@
+package org.firstinspires.ftc.ftcdevcommon;
+
+// Adapter for the platform's working directory, which holds the robot's
+// configuration files and logs: /sdcard/FIRST/TeamData on the Robot
+// Controller, the current directory on a desktop JVM.
+public interface WorkingDirectoryAdapter {
+
+    String getWorkingDirectory();
+
+    WorkingDirectoryAdapter CURRENT_DIRECTORY = () -> System.getProperty("user.dir");
+}
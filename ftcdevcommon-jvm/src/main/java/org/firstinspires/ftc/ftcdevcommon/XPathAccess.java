@@ -0,0 +1,347 @@
+package org.firstinspires.ftc.ftcdevcommon;
+
+import javax.xml.xpath.*;
+
+import org.w3c.dom.Element;
+import org.w3c.dom.Node;
+import org.w3c.dom.NodeList;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+// Generic access to XML elements via XPath.
+public class XPathAccess {
+
+    // --------- CLASS VARIABLES ----------
+    private static final String TAG = "XPathAccess";
+
+    private final XPath xpath;
+    private final Element xmlElement;
+
+    // --------- CONSTRUCTORS ----------
+    //## Compromise: pass an XML element in to the constructor.
+    // It would be possible to pass the element in to every method
+    // but the syntax is simpler this way.
+    public XPathAccess(RobotXMLElement pRobotXMLElement) {
+        XPathFactory xpathFactory = XPathFactory.newInstance();
+        xpath = xpathFactory.newXPath();
+        xmlElement = pRobotXMLElement.getRobotXMLElement();
+    }
+
+    // --------- FUNCTIONS ----------
+
+    // Works for both elements and attributes. The element or attribute
+    // must be present and its associated text must not be empty.
+    public String getRequiredString(String pPath) throws XPathExpressionException {
+        String text = getText(pPath);
+        if (text.isEmpty())
+            throw new AutonomousRobotException(TAG, "Requested item " + pPath + " does not exist in " + xmlElement.getTagName());
+
+        return text;
+    }
+
+    // If the requested text is not present, this method returns the default value.
+    // Otherwise it returns the text of the element or attribute.
+    public String getString(String pPath, String pDefaultIfMissing) throws XPathExpressionException {
+        String text = getText(pPath);
+        if (text.isEmpty())
+            return pDefaultIfMissing;
+
+        return text;
+    }
+
+    // Gets a text string from an element or attribute and checks it against a list
+    // of valid values.
+    public String getRequiredStringInRange(String pPath, List<String> pRangeList) throws XPathExpressionException {
+        String text = getRequiredString(pPath);
+        if (!pRangeList.contains(text))
+            throw new AutonomousRobotException(TAG, "Text value " + text + " is not a valid value");
+
+        return text;
+    }
+
+    // Gets a text string from an element or attribute and checks it against a list
+    // of valid values.
+    public String getStringInRange(String pPath, String pDefaultIfMissing, List<String> pRangeList) throws XPathExpressionException {
+        String text = getString(pPath, pDefaultIfMissing);
+        if (text.equals(pDefaultIfMissing))
+            return text;
+
+        if (!pRangeList.contains(text))
+            throw new AutonomousRobotException(TAG, "Text value " + text + " is not valid");
+
+        return text;
+    }
+
+    public List<String> validRange(String... pRangeValues) {
+        List<String> finalRangeList = new ArrayList<>();
+
+        if (pRangeValues == null)
+            return finalRangeList;
+
+        finalRangeList.addAll(Arrays.asList(pRangeValues));
+        return finalRangeList;
+    }
+
+    // Works with both attributes and elements.
+    public double getRequiredDouble(String pPath) throws XPathExpressionException {
+        String text = getRequiredString(pPath);
+        return getDoubleFromText(text, pPath);
+    }
+
+    // Works with both attributes and elements.
+    public double getDouble(String pPath, double pDefaultValue) throws XPathExpressionException {
+        String text = getText(pPath);
+        if (text.isEmpty())
+            return pDefaultValue;
+
+        return getDoubleFromText(text, pPath);
+    }
+
+    // Works with both attributes and elements.
+    public int getRequiredInt(String pPath) throws XPathExpressionException {
+        String text = getRequiredString(pPath);
+        return getIntFromText(text, pPath);
+    }
+
+    // Works with both attributes and elements.
+    public int getInt(String pPath, int pDefaultValue) throws XPathExpressionException {
+        String text = getText(pPath);
+        if (text.isEmpty())
+            return pDefaultValue;
+
+        return getIntFromText(text, pPath);
+    }
+
+    // Works with both attributes and elements.
+    public boolean getRequiredBoolean(String pPath) throws XPathExpressionException {
+        String text = getRequiredString(pPath);
+       return getBooleanFromText(text, pPath);
+    }
+
+    // Works with both attributes and elements.
+    public boolean getBoolean(String pPath, boolean pDefaultValue) throws XPathExpressionException {
+        String text = getText(pPath);
+        if (text.isEmpty())
+            return pDefaultValue;
+
+        return getBooleanFromText(text, pPath);
+    }
+
+    // Lookup tables such as motor power curves or servo positions may be
+    // stored either as repeated elements or attributes --
+    //   <power>0.2</power>
+    //   <power>0.5</power>
+    // or as comma-separated text in a single element or attribute --
+    //   <power>0.2, 0.5</power>
+    // Both forms are supported. The path is evaluated once and the
+    // values are parsed directly into a primitive array.
+    public double[] getRequiredDoubleArray(String pPath) throws XPathExpressionException {
+        List<String> textList = getTextList(pPath);
+        if (textList.isEmpty())
+            throw new AutonomousRobotException(TAG, "Requested item " + pPath + " does not exist in " + xmlElement.getTagName());
+
+        return getDoubleArrayFromText(textList, pPath);
+    }
+
+    // Returns the default array if the path selects nothing.
+    public double[] getDoubleArray(String pPath, double[] pDefaultIfMissing) throws XPathExpressionException {
+        List<String> textList = getTextList(pPath);
+        if (textList.isEmpty())
+            return pDefaultIfMissing;
+
+        return getDoubleArrayFromText(textList, pPath);
+    }
+
+    // See the comments for getRequiredDoubleArray.
+    public int[] getRequiredIntArray(String pPath) throws XPathExpressionException {
+        List<String> textList = getTextList(pPath);
+        if (textList.isEmpty())
+            throw new AutonomousRobotException(TAG, "Requested item " + pPath + " does not exist in " + xmlElement.getTagName());
+
+        return getIntArrayFromText(textList, pPath);
+    }
+
+    // Returns the default array if the path selects nothing.
+    public int[] getIntArray(String pPath, int[] pDefaultIfMissing) throws XPathExpressionException {
+        List<String> textList = getTextList(pPath);
+        if (textList.isEmpty())
+            return pDefaultIfMissing;
+
+        return getIntArrayFromText(textList, pPath);
+    }
+
+    // Returns all of the elements selected by the path, e.g. every
+    // <waypoint> child of the current element. There must be at least one.
+    public List<RobotXMLElement> getRequiredElements(String pPath) throws XPathExpressionException {
+        List<RobotXMLElement> elements = getElements(pPath);
+        if (elements.isEmpty())
+            throw new AutonomousRobotException(TAG, "Requested item " + pPath + " does not exist in " + xmlElement.getTagName());
+
+        return elements;
+    }
+
+    // Returns an empty list if the path does not select any elements.
+    public List<RobotXMLElement> getElements(String pPath) throws XPathExpressionException {
+        NodeList nodes = getNodeList(pPath);
+        List<RobotXMLElement> elements = new ArrayList<>(nodes.getLength());
+        for (int i = 0; i < nodes.getLength(); i++) {
+            Node node = nodes.item(i);
+            if (node.getNodeType() == Node.ELEMENT_NODE)
+                elements.add(new RobotXMLElement((Element) node));
+        }
+
+        return elements;
+    }
+
+    // Crude but effective in our environment: if the path includes a '@'
+    // consider it to be an XML attribute.
+    private String getText(String pPath) throws XPathExpressionException {
+        if (pPath.contains("@"))
+            return getAttributeValue(pPath);
+        return getElementText(pPath);
+    }
+
+    // Returns the trimmed text of every node selected by the path, with
+    // comma-separated text split into its individual items. As with the
+    // single-value getters the text of an element is its own text, not
+    // that of its children, so <curve><p>1</p><p>2</p></curve> has no
+    // values at "curve" and two at "curve/p". Returns an empty list if
+    // the path selects nothing or only empty nodes. An empty item within
+    // a list, e.g. "1,,2" or "1,2,", is an error.
+    private List<String> getTextList(String pPath) throws XPathExpressionException {
+        NodeList nodes = getNodeList(pPath);
+        List<String> textList = new ArrayList<>();
+        for (int i = 0; i < nodes.getLength(); i++) {
+            String text = getNodeText(nodes.item(i));
+            if (text == null || (text = text.trim()).isEmpty())
+                continue;
+
+            int start = 0;
+            int comma;
+            while ((comma = text.indexOf(',', start)) != -1) {
+                addListItem(text.substring(start, comma).trim(), pPath, textList);
+                start = comma + 1;
+            }
+            addListItem(text.substring(start).trim(), pPath, textList);
+        }
+
+        return textList;
+    }
+
+    // The text of a node as XPath sees it, untrimmed: the value of an
+    // attribute or, for an element, of its first text node, i.e. what
+    // "path/text()" selects. Adjacent text and CDATA nodes in the DOM are
+    // a single text node in XPath, so they are joined. Returns null if an
+    // element has no text node.
+    static String getNodeText(Node pNode) {
+        if (isText(pNode))
+            return joinText(pNode);
+        if (pNode.getNodeType() != Node.ELEMENT_NODE)
+            return pNode.getNodeValue();
+
+        for (Node child = pNode.getFirstChild(); child != null; child = child.getNextSibling())
+            if (isText(child))
+                return joinText(child);
+        return null;
+    }
+
+    private static String joinText(Node pFirstText) {
+        Node next = pFirstText.getNextSibling();
+        if (next == null || !isText(next))
+            return pFirstText.getNodeValue();
+
+        StringBuilder text = new StringBuilder(pFirstText.getNodeValue());
+        for (; next != null && isText(next); next = next.getNextSibling())
+            text.append(next.getNodeValue());
+        return text.toString();
+    }
+
+    private static boolean isText(Node pNode) {
+        short nodeType = pNode.getNodeType();
+        return nodeType == Node.TEXT_NODE || nodeType == Node.CDATA_SECTION_NODE;
+    }
+
+    private void addListItem(String pItem, String pPath, List<String> pTextList) {
+        if (pItem.isEmpty())
+            throw new AutonomousRobotException(TAG, "Empty value in " + pPath);
+        pTextList.add(pItem);
+    }
+
+    private NodeList getNodeList(String pPath) throws XPathExpressionException {
+        XPathExpression expr = xpath.compile(pPath);
+        return (NodeList) expr.evaluate(xmlElement, XPathConstants.NODESET);
+    }
+
+    // Returns an empty string if the attribute does not exist or
+    // the attribute value is an empty string.
+    private String getAttributeValue(String pPath) throws XPathExpressionException {
+        XPathExpression expr = xpath.compile(pPath);
+        // Trim needed because only validating parsers will strip white space.
+        return ((String) expr.evaluate(xmlElement, XPathConstants.STRING)).trim();
+    }
+
+    // Returns an empty string if the element does not exist or
+    // the element's text value is an empty string.
+    private String getElementText(String pPath) throws XPathExpressionException {
+        XPathExpression expr = xpath.compile(pPath + "/text()");
+        // Trim needed because only validating parsers will strip white space.
+        return ((String) expr.evaluate(xmlElement, XPathConstants.STRING)).trim();
+    }
+
+    private double getDoubleFromText(String pDoubleText, String pNodeName) {
+        if (pDoubleText.isEmpty())
+            throw new AutonomousRobotException(TAG, "Requested item " + pNodeName + " does not exist in " + xmlElement.getTagName());
+
+        double itemDouble;
+        try {
+            itemDouble = Double.parseDouble(pDoubleText);
+        } catch (NumberFormatException ex) {
+            throw new AutonomousRobotException(TAG, "Value in " + pNodeName + ": " + pDoubleText + " is not a double");
+        }
+
+        return itemDouble;
+    }
+
+    private double[] getDoubleArrayFromText(List<String> pTextList, String pNodeName) {
+        double[] values = new double[pTextList.size()];
+        for (int i = 0; i < values.length; i++)
+            values[i] = getDoubleFromText(pTextList.get(i), pNodeName);
+
+        return values;
+    }
+
+    private int[] getIntArrayFromText(List<String> pTextList, String pNodeName) {
+        int[] values = new int[pTextList.size()];
+        for (int i = 0; i < values.length; i++)
+            values[i] = getIntFromText(pTextList.get(i), pNodeName);
+
+        return values;
+    }
+
+    private int getIntFromText(String pIntText, String pNodeName) {
+        if (pIntText.isEmpty())
+            throw new AutonomousRobotException(TAG, "Requested item " + pNodeName + " does not exist in " + xmlElement.getTagName());
+
+        int itemInt;
+        try {
+            itemInt = Integer.parseInt(pIntText);
+        } catch (NumberFormatException ex) {
+            throw new AutonomousRobotException(TAG, "Value in " + pNodeName + ": " + pIntText + " is not an int");
+        }
+
+        return itemInt;
+    }
+
+    private boolean getBooleanFromText(String pBoolText, String pNodeName) {
+        if (pBoolText.isEmpty())
+            throw new AutonomousRobotException(TAG, "Requested item " + pNodeName + " does not exist in " + xmlElement.getTagName());
+
+        if (pBoolText.equals("true"))
+            return true;
+        if (pBoolText.equals("false"))
+            return false;
+        throw new AutonomousRobotException(TAG, "Value in " + pNodeName + ": " + pBoolText + " is not a boolean");
+    }
+}
@@ -0,0 +1,363 @@
+package org.firstinspires.ftc.ftcdevcommon;
+
+import org.w3c.dom.Attr;
+import org.w3c.dom.Element;
+import org.w3c.dom.NamedNodeMap;
+import org.w3c.dom.Node;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.regex.Pattern;
+
+import javax.xml.xpath.XPathExpressionException;
+
+// Companion to XPathAccess for subsystem constructors that need many
+// values from the same element. Instead of evaluating each path from
+// the element with a separate XPath call, declare all of the paths
+// first and then resolve them together with a single walk of the
+// element's subtree. All errors are collected and reported in one
+// AutonomousRobotException instead of failing on the first.
+//
+//   XPathBatch batch = new XPathBatch(pidElement);
+//   XPathBatch.DoubleItem kp = batch.requiredDouble("kp");
+//   XPathBatch.DoubleItem ki = batch.getDouble("ki", 0.0);
+//   XPathBatch.StringItem dir = batch.requiredStringInRange("@direction", batch.validRange("forward", "reverse"));
+//   batch.resolve();
+//   double kpValue = kp.get();
+//
+// Simple paths - element names separated by '/' with an optional
+// final attribute, e.g. "drive/left_motor/@name" - are resolved by the
+// subtree walk. Any other path, e.g. one with a predicate, falls back
+// to XPathAccess. As with XPathAccess, if a simple path selects more
+// than one node the first one in document order wins; for an element
+// path that is the first element that has any text, so an empty
+// element does not hide a later one with the same path.
+public class XPathBatch {
+
+    // --------- CLASS VARIABLES ----------
+    private static final String TAG = "XPathBatch";
+    private static final Pattern SIMPLE_PATH = Pattern.compile("(?:[A-Za-z_][\\w.-]*(?:/[A-Za-z_][\\w.-]*)*(?:/@[\\w.:-]+)?)|(?:@[\\w.:-]+)");
+
+    private final RobotXMLElement robotXMLElement;
+    private final Element xmlElement;
+    private final List<Item> items = new ArrayList<>();
+    private boolean resolved = false;
+
+    // --------- CONSTRUCTORS ----------
+    public XPathBatch(RobotXMLElement pRobotXMLElement) {
+        robotXMLElement = pRobotXMLElement;
+        xmlElement = pRobotXMLElement.getRobotXMLElement();
+    }
+
+    // --------- FUNCTIONS ----------
+    public StringItem requiredString(String pPath) {
+        return add(new StringItem(pPath, true, null, null));
+    }
+
+    public StringItem getString(String pPath, String pDefaultIfMissing) {
+        return add(new StringItem(pPath, false, pDefaultIfMissing, null));
+    }
+
+    public StringItem requiredStringInRange(String pPath, List<String> pRangeList) {
+        return add(new StringItem(pPath, true, null, pRangeList));
+    }
+
+    public StringItem getStringInRange(String pPath, String pDefaultIfMissing, List<String> pRangeList) {
+        return add(new StringItem(pPath, false, pDefaultIfMissing, pRangeList));
+    }
+
+    public List<String> validRange(String... pRangeValues) {
+        List<String> finalRangeList = new ArrayList<>();
+        if (pRangeValues == null)
+            return finalRangeList;
+
+        for (String rangeValue : pRangeValues)
+            finalRangeList.add(rangeValue);
+        return finalRangeList;
+    }
+
+    public DoubleItem requiredDouble(String pPath) {
+        return add(new DoubleItem(pPath, true, 0.0));
+    }
+
+    public DoubleItem getDouble(String pPath, double pDefaultValue) {
+        return add(new DoubleItem(pPath, false, pDefaultValue));
+    }
+
+    public IntItem requiredInt(String pPath) {
+        return add(new IntItem(pPath, true, 0));
+    }
+
+    public IntItem getInt(String pPath, int pDefaultValue) {
+        return add(new IntItem(pPath, false, pDefaultValue));
+    }
+
+    public BooleanItem requiredBoolean(String pPath) {
+        return add(new BooleanItem(pPath, true, false));
+    }
+
+    public BooleanItem getBoolean(String pPath, boolean pDefaultValue) {
+        return add(new BooleanItem(pPath, false, pDefaultValue));
+    }
+
+    // Resolves all declared items. Throws a single AutonomousRobotException
+    // that lists every missing or invalid item.
+    public void resolve() throws XPathExpressionException {
+        if (resolved)
+            throw new AutonomousRobotException(TAG, "resolve() has already been called for " + xmlElement.getTagName());
+        resolved = true;
+
+        // Collect the simple paths and every prefix of those paths so that
+        // the walk can skip subtrees that no item refers to.
+        HashSet<String> wantedPaths = new HashSet<>();
+        HashSet<String> wantedPrefixes = new HashSet<>();
+        for (Item item : items) {
+            if (!item.simplePath)
+                continue;
+
+            wantedPaths.add(item.path);
+            int slash = -1;
+            while ((slash = item.path.indexOf('/', slash + 1)) != -1)
+                wantedPrefixes.add(item.path.substring(0, slash));
+        }
+
+        HashMap<String, String> textByPath = new HashMap<>();
+        if (!wantedPaths.isEmpty())
+            walk(xmlElement, "", wantedPaths, wantedPrefixes, textByPath);
+
+        XPathAccess fallbackAccess = null;
+        StringBuilder errors = new StringBuilder();
+        int errorCount = 0;
+        for (Item item : items) {
+            String text;
+            if (item.simplePath) {
+                text = textByPath.get(item.path);
+                if (text == null)
+                    text = "";
+            } else {
+                if (fallbackAccess == null)
+                    fallbackAccess = new XPathAccess(robotXMLElement);
+                text = fallbackAccess.getString(item.path, "");
+            }
+
+            String error = item.set(text);
+            if (error != null) {
+                errorCount++;
+                errors.append("\n  ").append(error);
+            }
+        }
+
+        if (errorCount != 0)
+            throw new AutonomousRobotException(TAG, errorCount + " error(s) in " + xmlElement.getTagName() + ":" + errors);
+    }
+
+    private <I extends Item> I add(I pItem) {
+        if (resolved)
+            throw new AutonomousRobotException(TAG, "Attempt to add " + pItem.path + " after resolve()");
+        items.add(pItem);
+        return pItem;
+    }
+
+    // Records the text of every element and attribute whose relative
+    // path has been requested, descending only into elements that lie
+    // on a requested path.
+    private static void walk(Element pElement, String pPath, HashSet<String> pWantedPaths,
+                             HashSet<String> pWantedPrefixes, HashMap<String, String> pTextByPath) {
+        String pathPrefix = pPath.isEmpty() ? "" : pPath + "/";
+
+        NamedNodeMap attributes = pElement.getAttributes();
+        for (int i = 0; i < attributes.getLength(); i++) {
+            Attr attribute = (Attr) attributes.item(i);
+            String attributePath = pathPrefix + "@" + attribute.getName();
+            if (pWantedPaths.contains(attributePath) && !pTextByPath.containsKey(attributePath))
+                pTextByPath.put(attributePath, attribute.getValue().trim());
+        }
+
+        for (Node child = pElement.getFirstChild(); child != null; child = child.getNextSibling()) {
+            if (child.getNodeType() != Node.ELEMENT_NODE)
+                continue;
+
+            String childPath = pathPrefix + ((Element) child).getTagName();
+            if (pWantedPaths.contains(childPath) && !pTextByPath.containsKey(childPath)) {
+                String text = getFirstText(child);
+                if (text != null)
+                    pTextByPath.put(childPath, text);
+            }
+
+            if (pWantedPrefixes.contains(childPath))
+                walk((Element) child, childPath, pWantedPaths, pWantedPrefixes, pTextByPath);
+        }
+    }
+
+    // Equivalent to XPathAccess, which evaluates "path/text()" as a string:
+    // the value of the first text node, in which XPath joins adjacent text
+    // and CDATA nodes, trimmed. Returns null if the element has no text
+    // node so that the walk goes on to the next element with the same
+    // path, as "path/text()" does.
+    private static String getFirstText(Node pElement) {
+        String text = XPathAccess.getNodeText(pElement);
+        return text == null ? null : text.trim();
+    }
+
+    // Base class for a single declared value.
+    private abstract class Item {
+        final String path;
+        final boolean required;
+        final boolean simplePath;
+        boolean valueSet = false;
+
+        Item(String pPath, boolean pRequired) {
+            path = pPath.startsWith("./") ? pPath.substring(2) : pPath;
+            required = pRequired;
+            simplePath = SIMPLE_PATH.matcher(path).matches();
+        }
+
+        // Returns null on success or an error message.
+        String set(String pText) {
+            if (pText.isEmpty()) {
+                if (required)
+                    return "Requested item " + path + " does not exist in " + xmlElement.getTagName();
+                setDefault();
+            } else {
+                String error = parse(pText);
+                if (error != null)
+                    return error;
+            }
+
+            valueSet = true;
+            return null;
+        }
+
+        abstract void setDefault();
+
+        abstract String parse(String pText);
+
+        void checkResolved() {
+            if (!valueSet)
+                throw new AutonomousRobotException(TAG, "Item " + path + " in " + xmlElement.getTagName() + " has not been resolved");
+        }
+    }
+
+    public class StringItem extends Item {
+        private final String defaultValue;
+        private final List<String> rangeList;
+        private String value;
+
+        private StringItem(String pPath, boolean pRequired, String pDefaultValue, List<String> pRangeList) {
+            super(pPath, pRequired);
+            defaultValue = pDefaultValue;
+            rangeList = pRangeList;
+        }
+
+        public String get() {
+            checkResolved();
+            return value;
+        }
+
+        @Override
+        void setDefault() {
+            value = defaultValue;
+        }
+
+        @Override
+        String parse(String pText) {
+            if (rangeList != null && !rangeList.contains(pText))
+                return "Text value " + pText + " in " + path + " is not a valid value";
+            value = pText;
+            return null;
+        }
+    }
+
+    public class DoubleItem extends Item {
+        private final double defaultValue;
+        private double value;
+
+        private DoubleItem(String pPath, boolean pRequired, double pDefaultValue) {
+            super(pPath, pRequired);
+            defaultValue = pDefaultValue;
+        }
+
+        public double get() {
+            checkResolved();
+            return value;
+        }
+
+        @Override
+        void setDefault() {
+            value = defaultValue;
+        }
+
+        @Override
+        String parse(String pText) {
+            try {
+                value = Double.parseDouble(pText);
+            } catch (NumberFormatException ex) {
+                return "Value in " + path + ": " + pText + " is not a double";
+            }
+            return null;
+        }
+    }
+
+    public class IntItem extends Item {
+        private final int defaultValue;
+        private int value;
+
+        private IntItem(String pPath, boolean pRequired, int pDefaultValue) {
+            super(pPath, pRequired);
+            defaultValue = pDefaultValue;
+        }
+
+        public int get() {
+            checkResolved();
+            return value;
+        }
+
+        @Override
+        void setDefault() {
+            value = defaultValue;
+        }
+
+        @Override
+        String parse(String pText) {
+            try {
+                value = Integer.parseInt(pText);
+            } catch (NumberFormatException ex) {
+                return "Value in " + path + ": " + pText + " is not an int";
+            }
+            return null;
+        }
+    }
+
+    public class BooleanItem extends Item {
+        private final boolean defaultValue;
+        private boolean value;
+
+        private BooleanItem(String pPath, boolean pRequired, boolean pDefaultValue) {
+            super(pPath, pRequired);
+            defaultValue = pDefaultValue;
+        }
+
+        public boolean get() {
+            checkResolved();
+            return value;
+        }
+
+        @Override
+        void setDefault() {
+            value = defaultValue;
+        }
+
+        @Override
+        String parse(String pText) {
+            if (pText.equals("true"))
+                value = true;
+            else if (pText.equals("false"))
+                value = false;
+            else
+                return "Value in " + path + ": " + pText + " is not a boolean";
+            return null;
+        }
+    }
+}
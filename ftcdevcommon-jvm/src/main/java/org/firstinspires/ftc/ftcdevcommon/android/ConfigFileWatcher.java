@@ -0,0 +1,148 @@
+package org.firstinspires.ftc.ftcdevcommon.android;
+
+import org.firstinspires.ftc.ftcdevcommon.AutoWorker;
+import org.firstinspires.ftc.ftcdevcommon.AutonomousRobotException;
+import org.firstinspires.ftc.ftcdevcommon.Platform;
+
+import java.io.File;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Watches a single configuration file, typically an XML file in the
+// working directory, and reloads it whenever it changes so that values
+// such as PID constants can be tuned by pushing a new file over adb
+// without restarting the OpMode.
+
+// The watcher is an AutoWorker: launch it with Threading.launchAsync()
+// and stop it with stopThread(). Change detection is by cheap polling
+// of the file's last-modified time and length (WatchService requires
+// Android API 26). When a change is detected the file is reparsed on
+// the watcher's thread - never on the OpMode thread - by the caller-
+// supplied ConfigParser. If parsing succeeds the new configuration
+// object is swapped in with a single volatile write; if parsing fails
+// the previous configuration remains in effect and the failure is
+// logged.
+
+// The configuration object returned by the parser should be immutable
+// so that readers on any thread can call getCurrentConfig() without
+// locks and always see a consistent set of values.
+//
+// Typical usage --
+//   ConfigFileWatcher<PIDConfig> pidWatcher =
+//      new ConfigFileWatcher<>("PID.xml", PIDConfig::fromXMLFile, 500);
+//   CompletableFuture<Void> watcherFuture = Threading.launchAsync(pidWatcher);
+//   ...
+//   PIDConfig pid = pidWatcher.getCurrentConfig(); // in the control loop
+//   ...
+//   pidWatcher.stopThread();
+//   Threading.getFutureCompletion(watcherFuture);
+public class ConfigFileWatcher<T> extends AutoWorker<Void> {
+
+    private static final String TAG = "ConfigFileWatcher";
+
+    // Converts the contents of a configuration file into an immutable
+    // configuration object. Any exception is treated as a failed reload.
+    public interface ConfigParser<T> {
+        T parse(File pConfigFile) throws Exception;
+    }
+
+    private final File configFile;
+    private final ConfigParser<T> configParser;
+    private final int pollIntervalMs;
+
+    private volatile T currentConfig;
+    private final AtomicLong reloadCount = new AtomicLong();
+
+    // Identifies the version of the file that was last parsed, whether
+    // successfully or not, so that a bad file is not reparsed on every
+    // poll.
+    private long lastModified;
+    private long lastLength;
+
+    // --------- CONSTRUCTORS ----------
+    // Watch a file in the platform's working directory.
+    public ConfigFileWatcher(String pConfigFileName, ConfigParser<T> pConfigParser, int pPollIntervalMs) {
+        this(Platform.getWorkingDirectory(), pConfigFileName, pConfigParser, pPollIntervalMs);
+    }
+
+    // Watch a file in any directory.
+    // The initial load takes place on the caller's thread so that a valid
+    // configuration is always available from getCurrentConfig().
+    public ConfigFileWatcher(String pDirectoryPath, String pConfigFileName, ConfigParser<T> pConfigParser, int pPollIntervalMs) {
+        if (pPollIntervalMs <= 0)
+            throw new AutonomousRobotException(TAG, "Poll interval must be greater than 0");
+
+        configFile = new File(pDirectoryPath, pConfigFileName);
+        configParser = pConfigParser;
+        pollIntervalMs = pPollIntervalMs;
+
+        lastModified = configFile.lastModified();
+        lastLength = configFile.length();
+        try {
+            currentConfig = configParser.parse(configFile);
+        } catch (Exception ex) {
+            throw new AutonomousRobotException(TAG, "Initial load of " + configFile.getPath() + " failed: " + ex);
+        }
+
+        if (currentConfig == null)
+            throw new AutonomousRobotException(TAG, "Initial load of " + configFile.getPath() + " returned null");
+
+        RobotLogCommon.d(TAG, "Loaded " + configFile.getPath());
+    }
+
+    // --------- FUNCTIONS ----------
+    // Lock-free; safe to call from any thread.
+    public T getCurrentConfig() {
+        return currentConfig;
+    }
+
+    // The number of successful reloads after the initial load. A reader
+    // can compare this value against a saved copy to find out cheaply
+    // whether the configuration has changed.
+    public long getReloadCount() {
+        return reloadCount.get();
+    }
+
+    @Override
+    public Void call() throws InterruptedException {
+        RobotLogCommon.d(TAG, "Watching " + configFile.getPath() + " every " + pollIntervalMs + " ms");
+        while (!stopThreadRequested()) {
+            heartbeat();
+            Thread.sleep(pollIntervalMs);
+            reloadIfChanged();
+        }
+
+        RobotLogCommon.d(TAG, "Stopped watching " + configFile.getPath());
+        return null;
+    }
+
+    private void reloadIfChanged() {
+        // lastModified() and length() both return 0 if the file does not
+        // exist, e.g. while adb is replacing it.
+        long modified = configFile.lastModified();
+        long length = configFile.length();
+        if (modified == 0 || (modified == lastModified && length == lastLength))
+            return;
+
+        lastModified = modified;
+        lastLength = length;
+
+        long startNanos = System.nanoTime();
+        T newConfig;
+        try {
+            newConfig = configParser.parse(configFile);
+        } catch (Exception ex) {
+            RobotLogCommon.e(TAG, "Reload of " + configFile.getPath() + " failed; keeping previous configuration: " + ex);
+            return;
+        }
+
+        if (newConfig == null) {
+            RobotLogCommon.e(TAG, "Reload of " + configFile.getPath() + " returned null; keeping previous configuration");
+            return;
+        }
+
+        currentConfig = newConfig;
+        long reloads = reloadCount.incrementAndGet();
+        long elapsedMicros = (System.nanoTime() - startNanos) / 1000;
+        RobotLogCommon.i(TAG, "Reloaded " + configFile.getPath() + " (reload " + reloads + ") in " + elapsedMicros + " us");
+    }
+}
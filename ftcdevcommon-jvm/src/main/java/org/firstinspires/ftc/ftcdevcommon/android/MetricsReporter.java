@@ -0,0 +1,95 @@
+package org.firstinspires.ftc.ftcdevcommon.android;
+
+import org.firstinspires.ftc.ftcdevcommon.AutoWorker;
+import org.firstinspires.ftc.ftcdevcommon.AutonomousRobotException;
+import org.firstinspires.ftc.ftcdevcommon.MetricsRegistry;
+
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.Writer;
+
+// Periodically writes the summary from a MetricsRegistry either to
+// the current RobotLogCommon log or to a dedicated file. Launch with
+// Threading.launchAsync() and stop with stopThread(); a final summary
+// is written when the reporter stops.
+
+// If resetAfterReport is true each summary covers only the interval
+// since the previous one; otherwise each summary is cumulative. The
+// reporter beats its heartbeat once per report, so if it is registered
+// with a StallWatchdog the stall threshold must be longer than the
+// report interval.
+public class MetricsReporter extends AutoWorker<Void> {
+
+    private static final String TAG = "MetricsReporter";
+
+    private final MetricsRegistry registry;
+    private final int reportIntervalMs;
+    private final boolean resetAfterReport;
+    private final String metricsFilePath; // null to report through RobotLogCommon
+
+    // --------- CONSTRUCTORS ----------
+    // Report through RobotLogCommon.
+    public MetricsReporter(MetricsRegistry pRegistry, int pReportIntervalMs, boolean pResetAfterReport) {
+        this(pRegistry, pReportIntervalMs, pResetAfterReport, null);
+    }
+
+    // Report to a dedicated file, which is appended to.
+    public MetricsReporter(MetricsRegistry pRegistry, int pReportIntervalMs, boolean pResetAfterReport, String pMetricsFilePath) {
+        if (pReportIntervalMs <= 0)
+            throw new AutonomousRobotException(TAG, "Report interval must be greater than 0");
+
+        registry = pRegistry;
+        reportIntervalMs = pReportIntervalMs;
+        resetAfterReport = pResetAfterReport;
+        metricsFilePath = pMetricsFilePath;
+    }
+
+    // --------- FUNCTIONS ----------
+    @Override
+    public Void call() throws InterruptedException {
+        Writer metricsWriter = null;
+        try {
+            if (metricsFilePath != null)
+                metricsWriter = new FileWriter(metricsFilePath, true);
+
+            try {
+                while (true) {
+                    heartbeat();
+                    Thread.sleep(reportIntervalMs);
+                    if (stopThreadRequested())
+                        break;
+                    report(metricsWriter);
+                }
+            } finally {
+                report(metricsWriter); // final summary, even after an interrupt
+            }
+        } catch (IOException iox) {
+            RobotLogCommon.e(TAG, "Error writing metrics to " + metricsFilePath + ": " + iox);
+        } finally {
+            if (metricsWriter != null) {
+                try {
+                    metricsWriter.close();
+                } catch (IOException iox) {
+                    RobotLogCommon.e(TAG, "Error closing " + metricsFilePath + ": " + iox);
+                }
+            }
+        }
+
+        return null;
+    }
+
+    private void report(Writer pMetricsWriter) throws IOException {
+        String summary = resetAfterReport ? registry.getSummaryAndReset() : registry.getSummary();
+        if (pMetricsWriter == null) {
+            RobotLogCommon.i(TAG, "Metrics\n" + summary);
+            return;
+        }
+
+        StringBuilder header = new StringBuilder("[");
+        TimeStamp.appendLogTimeStamp(System.currentTimeMillis(), header);
+        header.append("] Metrics\n");
+        pMetricsWriter.write(header.toString());
+        pMetricsWriter.write(summary);
+        pMetricsWriter.flush();
+    }
+}
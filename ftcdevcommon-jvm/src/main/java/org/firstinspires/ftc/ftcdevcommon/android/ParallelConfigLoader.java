@@ -0,0 +1,160 @@
+package org.firstinspires.ftc.ftcdevcommon.android;
+
+import org.firstinspires.ftc.ftcdevcommon.AutonomousRobotException;
+import org.firstinspires.ftc.ftcdevcommon.RobotXMLElement;
+import org.firstinspires.ftc.ftcdevcommon.Threading;
+import org.w3c.dom.Document;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+
+import javax.xml.parsers.DocumentBuilderFactory;
+
+// Loads several independent configuration files concurrently during
+// OpMode init, e.g. the robot configuration, the Autonomous script,
+// vision parameters and calibration files, each on its own thread.
+
+// Register each load with add() or addXMLFile(), keep the returned
+// LoadedConfig, then call loadAll(). loadAll() waits for every load
+// to finish, logs the time taken by each one along with the total
+// wall-clock time, and, if any load failed, throws a single
+// AutonomousRobotException that lists every failure - not just the
+// first.
+
+// Thread safety: each XML file is parsed into its own DOM Document on
+// its own thread, and each thread should create its own XPathAccess.
+// XPathAccess is safe under this kind of thread confinement because
+// every instance has a private XPath object. But the DOM itself is not
+// thread-safe, even for reads, so do not process sections of the same
+// Document on different threads.
+public class ParallelConfigLoader {
+
+    private static final String TAG = "ParallelConfigLoader";
+
+    // Converts the root element of a parsed XML file into a configuration
+    // object.
+    public interface XMLConfigParser<T> {
+        T parse(RobotXMLElement pRootElement) throws Exception;
+    }
+
+    private final List<LoadedConfig<?>> configs = new ArrayList<>();
+    private boolean loaded = false;
+
+    // --------- FUNCTIONS ----------
+    // Registers a load. The Callable runs on its own thread.
+    public <T> LoadedConfig<T> add(String pName, Callable<T> pLoader) {
+        if (loaded)
+            throw new AutonomousRobotException(TAG, "Attempt to add " + pName + " after loadAll()");
+
+        LoadedConfig<T> config = new LoadedConfig<>(pName, pLoader);
+        configs.add(config);
+        return config;
+    }
+
+    // Registers the parsing of an XML file followed by the conversion of
+    // its root element into a configuration object.
+    public <T> LoadedConfig<T> addXMLFile(String pName, String pXMLFilePath, XMLConfigParser<T> pParser) {
+        return add(pName, () -> {
+            // DocumentBuilderFactory is not thread-safe so each load gets its own.
+            DocumentBuilderFactory dbFactory = DocumentBuilderFactory.newInstance();
+            dbFactory.setIgnoringComments(true);
+            Document document = dbFactory.newDocumentBuilder().parse(new File(pXMLFilePath));
+            return pParser.parse(new RobotXMLElement(document.getDocumentElement()));
+        });
+    }
+
+    // Runs all registered loads concurrently and waits for them to finish.
+    public void loadAll() throws InterruptedException {
+        if (loaded)
+            throw new AutonomousRobotException(TAG, "loadAll() has already been called");
+        loaded = true;
+
+        long startNanos = System.nanoTime();
+        List<CompletableFuture<Void>> futures = new ArrayList<>(configs.size());
+        for (LoadedConfig<?> config : configs)
+            futures.add(Threading.launchAsync(config));
+
+        StringBuilder errors = new StringBuilder();
+        int errorCount = 0;
+        for (int i = 0; i < configs.size(); i++) {
+            LoadedConfig<?> config = configs.get(i);
+            try {
+                Threading.getFutureCompletion(futures.get(i));
+            } catch (InterruptedException iex) {
+                throw iex;
+            } catch (Throwable t) {
+                // Failures inside the load itself are recorded in the
+                // LoadedConfig; this covers failures of the future.
+                if (config.error == null)
+                    config.error = t;
+            }
+
+            if (config.error != null) {
+                errorCount++;
+                errors.append("\n  ").append(config.name).append(": ").append(config.error.getMessage() != null ? config.error.getMessage() : config.error.toString());
+                RobotLogCommon.e(TAG, "Load of " + config.name + " failed after " + config.elapsedMs + " ms");
+            } else
+                RobotLogCommon.d(TAG, "Loaded " + config.name + " in " + config.elapsedMs + " ms");
+        }
+
+        long wallClockMs = (System.nanoTime() - startNanos) / 1000000;
+        long serialMs = 0;
+        for (LoadedConfig<?> config : configs)
+            serialMs += config.elapsedMs;
+        RobotLogCommon.i(TAG, "Loaded " + configs.size() + " configurations in " + wallClockMs + " ms wall-clock; sum of individual loads " + serialMs + " ms");
+
+        if (errorCount != 0)
+            throw new AutonomousRobotException(TAG, errorCount + " of " + configs.size() + " configurations failed to load:" + errors);
+    }
+
+    // Holds the result of a single load. get() is valid only after
+    // loadAll() has returned normally.
+    public static class LoadedConfig<T> implements Callable<Void> {
+        private final String name;
+        private final Callable<T> loader;
+
+        // Written by the loading thread and read by the caller of loadAll()
+        // after the completion of the corresponding CompletableFuture, which
+        // establishes the happens-before relationship.
+        private T value;
+        private Throwable error;
+        private long elapsedMs;
+
+        private LoadedConfig(String pName, Callable<T> pLoader) {
+            name = pName;
+            loader = pLoader;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public T get() {
+            if (value == null)
+                throw new AutonomousRobotException(TAG, "Configuration " + name + " has not been loaded");
+            return value;
+        }
+
+        public long getElapsedMs() {
+            return elapsedMs;
+        }
+
+        @Override
+        public Void call() {
+            long startNanos = System.nanoTime();
+            try {
+                value = loader.call();
+                if (value == null)
+                    error = new AutonomousRobotException(TAG, "Load returned null");
+            } catch (Throwable t) {
+                error = t;
+            } finally {
+                elapsedMs = (System.nanoTime() - startNanos) / 1000000;
+            }
+            return null;
+        }
+    }
+}
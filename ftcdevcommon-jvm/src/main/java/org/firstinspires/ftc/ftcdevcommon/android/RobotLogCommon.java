@@ -0,0 +1,802 @@
+package org.firstinspires.ftc.ftcdevcommon.android;
+
+import org.firstinspires.ftc.ftcdevcommon.AutonomousRobotException;
+import org.firstinspires.ftc.ftcdevcommon.ConsoleLog;
+import org.firstinspires.ftc.ftcdevcommon.Platform;
+import org.firstinspires.ftc.ftcdevcommon.Profiler;
+import org.firstinspires.ftc.ftcdevcommon.Threading;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.logging.FileHandler;
+import java.util.logging.Formatter;
+import java.util.logging.Level;
+import java.util.logging.LogRecord;
+
+// Logging class that enqueues log records and writes them out in
+// the background to a standard Java FileHandler.
+
+// This class supports multiple loggers, of which only one may be
+// active at any given time. To prevent the reuse of a logger that
+// that may not have been closed cleanly (due to a panic stop in
+// FTC Autonomous, for example), this class opens a new Java
+// Filehandler and log file with a unique name each time initialize()
+// is called. This feature supports the typical FTC testing pattern
+// by which Autonomous and/or TeleOp are run multiple times without
+// a cold start of the Robot Controller.
+
+// So why do we need these features? In testing 2021-2022 Freight
+// Frenzy we noticed that when we ran TeleOp after Autonomous, which
+// is the normal case, we sometimes saw that Gamepad 2 would stop
+// responding to button clicks after TeleOp had run for some time.
+// Gamepad 1, which was used for the drive train, never locked up.
+// We narrowed the problem down to logging for three reasons: 1) no
+// hangups occurred when we ran TeleOp alone (so there was no
+// possibility of an unclosed Autonomous log), 2) the code for
+// Gamepad 1 did not include any logging calls and 3) when a hangup
+// did occur in TeleOp we discovered that there were no lines in
+// the log file for TeleOp. Since TeleOp would run for some time
+// before locking up we knew the problem was not likely to be the
+// locks or the log entry queue (which has a capacity of
+// Integer.MAX_VALUE) but rather the actual call to the Java logger
+// to write out a record.
+
+// What's different about this version of the class? First, the state
+// of each logging session - from initialize() to closeLog() - is kept
+// in its own LogSession: the FileHandler, the log level and the latch
+// that signals that the file has been closed. Each queued entry carries
+// its session so that late entries from a session that was not closed
+// never end up in the next session's file. Second, each call to
+// initialize() causes the logger to write to a different file. And
+// third, initialize() refuses to start a session, and returns
+// LOGGING_DISABLED, if the log directory does not exist or cannot be
+// written.
+
+// Since Autonomous and TeleOp run back to back, the cost of
+// initialize() is paid at every OpMode start. So the background
+// LogWriter thread and its buffers are persistent: they are created by
+// the first call to initialize() and serve every session after that.
+// The LogWriter records the time of its last progress - the start of a
+// batch and each entry written - and initialize() replaces it only if
+// it has exited or has made no progress for STUCK_WRITER_MS while it
+// had work to do. A writer that is merely slow, e.g. working through a
+// large backlog on a slow SD card, is left alone. The new FileHandler
+// is opened on the LogWriter thread, so initialize() itself takes only
+// microseconds; if the file cannot be opened even though the directory
+// is writable the error is reported on the console log and the
+// session's entries are discarded.
+
+// closeLog() waits at most 100 ms and writes at most the last 10
+// entries that are still queued for the session. Under load that can
+// lose hundreds of entries from the end of Autonomous, so
+// closeLog(pDeadlineMs) drains the whole backlog instead: the entries
+// are formatted into large chunks and appended to the log file with a
+// few bulk writes rather than one FileHandler record (and flush) per
+// entry. Whatever is not written by the deadline goes to a spill file
+// next to the log file in a single write, and the log records exactly
+// how many entries of the backlog were written, spilled or lost. The
+// backlog includes the rest of the batch that the LogWriter is writing
+// through the FileHandler when the close is requested: the LogWriter
+// checks for a full-flush close between entries and hands the rest of
+// the batch to the bulk path.
+
+//## Ported from the IntelliJ project IntelliJTestbed on 1/30/2022.
+public class RobotLogCommon {
+
+    private static final String TAG = "FTCRobotLog";
+    private static final Level DEFAULT_LEVEL = Level.FINE;
+    private static final long STUCK_WRITER_MS = 2000;
+    private static final long CLOSE_TIMEOUT_MS = 100;
+    private static final int FULL_FLUSH_GRACE_MS = 100; // for the spill after the deadline
+    private static final int BULK_WRITE_CHUNK_SIZE = 64 * 1024;
+
+    public enum OpenStatus {
+        // The logger was initialized with an id of NONE or there was
+        // an error during initialization.
+        LOGGING_DISABLED,
+        NEW_LOGGER_CREATED,
+    }
+
+    public enum LogIdentifier {AUTO_LOG, TELEOP_LOG, TEST_LOG, APP_LOG, NONE}
+
+    private static final EnumMap<LogIdentifier, String> logFileBaseNames = new EnumMap<LogIdentifier, String>(LogIdentifier.class) {{
+        put(LogIdentifier.AUTO_LOG, "FTCAutoLog_");
+        put(LogIdentifier.TELEOP_LOG, "FTCTeleOpLog_");
+        put(LogIdentifier.TEST_LOG, "TestLog_");
+        put(LogIdentifier.APP_LOG, "AppLog_");
+    }};
+
+    // Status messages about the logger itself go to the console log:
+    // logcat on the Robot Controller, standard output on a desktop JVM.
+    private static volatile ConsoleLog consoleLog = Platform.getConsoleLog();
+
+    // Shared by all sessions; only the LogWriter thread formats records.
+    private static final LogFormatter logFormatter = new LogFormatter();
+
+    private static LogIdentifier currentLogIdentifier = LogIdentifier.NONE;
+    private static LogSession currentSession;
+    private static LogWriter logWriter; // persistent across sessions
+
+    // Wanted to use a MemoryHandler to log to a buffer but found out here --
+    // https://chromium.googlesource.com/android_tools/+/refs/heads/master/sdk/sources/android-25/java/util/logging/MemoryHandler.java
+    // that push() is synchronous with the linked FileHandler. So we'll use a queue instead.
+    public static synchronized OpenStatus initialize(LogIdentifier pIdentifier, String pLogDirPath) {
+
+        consoleLog.d(TAG, "Request to initialize logger " + pIdentifier);
+        long startNanos = System.nanoTime();
+
+        // The system clock may have been set since the last OpMode, e.g. by
+        // the Driver Station after boot.
+        TimeStamp.resynchronize();
+
+        // We'll always create a new log file so we don't have to worry about
+        // the state of the current one. If the caller did not close the current
+        // session the LogWriter closes it in the background after writing out
+        // its remaining entries.
+        if (currentSession != null && logWriter != null)
+            logWriter.requestClose(currentSession);
+        currentLogIdentifier = LogIdentifier.NONE;
+        currentSession = null;
+
+        // This is the same as not calling initialize() at all but may be useful
+        // if you want to make logging configurable.
+        if (pIdentifier == LogIdentifier.NONE) {
+            consoleLog.d(TAG, "For log id NONE no logger will be initialized");
+            return OpenStatus.LOGGING_DISABLED;
+        }
+
+        // The FileHandler is opened later on the LogWriter thread, so check
+        // here that it will be able to create the file.
+        File logDir = new File(pLogDirPath);
+        if (!logDir.isDirectory() || !logDir.canWrite()) {
+            consoleLog.d(TAG, "Log directory " + pLogDirPath + " does not exist or is not writable; logging is disabled");
+            return OpenStatus.LOGGING_DISABLED;
+        }
+
+        // Now we can initialize the requested logger.
+        consoleLog.d(TAG, "Initializing the requested logger");
+        OpenStatus openStatus;
+        try {
+            // Log file initialization is based on --
+            //https://www.logicbig.com/tutorials/core-java-tutorial/logging/customizing-default-format.html
+            // Get a timestamp and use it to make each log file unique.
+            String dateTimeNow = TimeStamp.getDateTimeStamp();
+
+            // System.setProperty("java.util.logging.config.file",
+            // "Files/logging.properties");
+            // OR
+            // FileInputStream logProperties = new
+            // FileInputStream("Files/logging.properties");
+            // LogManager.getLogManager().readConfiguration(logProperties);
+
+            // 11/27/2019 When I use either of the above methods to set the log file size
+            // limit, the file count, and the append flag - only the append flag is
+            // honored. A single log file is created that grows indefinitely. But if I
+            // use the next line, everything works.
+            // That line now runs on the LogWriter thread - see LogSession.open().
+            String fullLogFilePath = pLogDirPath + logFileBaseNames.get(pIdentifier) + dateTimeNow + ".txt";
+
+            // Records are published directly to the FileHandler by the LogWriter;
+            // the level check that a Java Logger would make is done in
+            // enqueueLogEntry().
+            LogSession newSession = new LogSession(pIdentifier, fullLogFilePath);
+            startLogWriterIfNeeded();
+            logWriter.requestOpen(newSession);
+
+            currentLogIdentifier = pIdentifier;
+            currentSession = newSession;
+
+            openStatus = OpenStatus.NEW_LOGGER_CREATED;
+            long elapsedMicros = (System.nanoTime() - startNanos) / 1000;
+            consoleLog.d(TAG, "Requested logger up and running on file " + fullLogFilePath + " after " + elapsedMicros + " us");
+        } catch (Throwable throwable) {
+            currentLogIdentifier = LogIdentifier.NONE;
+            currentSession = null;
+            openStatus = OpenStatus.LOGGING_DISABLED;
+            consoleLog.d(TAG, "Error in logger initialization; logging is disabled");
+        }
+
+        return openStatus;
+    }
+
+    // Replaces the default console log.
+    public static void setConsoleLog(ConsoleLog pConsoleLog) {
+        consoleLog = pConsoleLog;
+    }
+
+    public static synchronized void setMostDetailedLogLevel(final Level pLogLevel) {
+        if (currentLogIdentifier == LogIdentifier.NONE) {
+            consoleLog.d(TAG, "Attempt to set log level when logging is disabled");
+            return;
+        }
+
+        currentSession.logLevel = pLogLevel;
+    }
+
+    public static synchronized Level getMostDetailedLogLevel() {
+        if (currentLogIdentifier == LogIdentifier.NONE)
+            return Level.OFF;
+        return currentSession.logLevel;
+    }
+
+    public static void e(String pTAG, String pLogMessage) {
+        enqueueLogEntry(Level.SEVERE, pTAG + " " + pLogMessage);
+    }
+
+    public static void c(String pTAG, String pLogMessage) {
+        enqueueLogEntry(Level.CONFIG, pTAG + " " + pLogMessage);
+    }
+
+    public static void i(String pTAG, String pLogMessage) {
+        enqueueLogEntry(Level.INFO, pTAG + " " + pLogMessage);
+    }
+
+    public static void d(String pTAG, String pLogMessage) {
+        enqueueLogEntry(Level.FINE, pTAG + " " + pLogMessage);
+    }
+
+    public static void v(String pTAG, String pLogMessage) {
+        enqueueLogEntry(Level.FINER, pTAG + " " + pLogMessage);
+    }
+
+    public static void vv(String pTAG, String pLogMessage) {
+        enqueueLogEntry(Level.FINEST, pTAG + " " + pLogMessage);
+    }
+
+    private static synchronized void enqueueLogEntry(Level pLevel, String pLogString) {
+        if (currentLogIdentifier == LogIdentifier.NONE || currentSession.logLevel == Level.OFF)
+            return; // nothing to do
+
+        // Don't enqueue if the log entry is more detailed than the current logging level.
+        if (pLevel.intValue() < currentSession.logLevel.intValue())
+            return;
+
+        // Enqueue the log entry for writing out to the log file.
+        logWriter.enqueue(new LogEntry(currentSession, System.currentTimeMillis(), pLevel, pLogString));
+    }
+
+    // Close the current log file. The LogWriter thread stays up for the
+    // next session.
+    public static void closeLog() {
+        LogSession closingSession = requestCloseLog(0);
+        if (closingSession != null)
+            awaitClose(closingSession, CLOSE_TIMEOUT_MS);
+    }
+
+    // Close the current log file after writing out every entry that is
+    // still queued for it. Entries that cannot be written by the deadline
+    // go to a spill file. Waits a little longer than the deadline for the
+    // spill to complete.
+    public static void closeLog(int pDeadlineMs) {
+        if (pDeadlineMs <= 0)
+            throw new AutonomousRobotException(TAG, "Close deadline must be greater than 0");
+
+        LogSession closingSession = requestCloseLog(pDeadlineMs);
+        if (closingSession != null)
+            awaitClose(closingSession, pDeadlineMs + FULL_FLUSH_GRACE_MS);
+    }
+
+    // Detaches the current session and asks the LogWriter to close it.
+    // A deadline of 0 selects the default close, which writes at most the
+    // last 10 queued entries. Returns null if no log is open.
+    private static synchronized LogSession requestCloseLog(int pDeadlineMs) {
+        if (currentLogIdentifier == LogIdentifier.NONE)
+            return null;
+
+        // If profiling is on, make its report one of the last entries in the
+        // log. Reset it so that the next log's report starts from zero.
+        if (Profiler.isEnabled()) {
+            String profilerReport = Profiler.getReport();
+            if (!profilerReport.isEmpty())
+                i(TAG, profilerReport);
+            Profiler.reset();
+        }
+
+        LogSession closingSession = currentSession;
+        currentLogIdentifier = LogIdentifier.NONE;
+        currentSession = null;
+
+        // Signal the LogWriter to write out the session's remaining entries
+        // and close its file.
+        if (pDeadlineMs != 0)
+            closingSession.fullFlushDeadlineNanos = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(pDeadlineMs);
+        closingSession.queuedAtClose = logWriter.requestClose(closingSession);
+        return closingSession;
+    }
+
+    // Waits without holding the class lock so that other threads can keep
+    // logging - their entries are simply discarded - while the backlog is
+    // written out.
+    private static void awaitClose(LogSession pClosingSession, long pWaitMs) {
+        LogIdentifier closingIdentifier = pClosingSession.logIdentifier;
+
+        // Check if the LogWriter has closed the session cleanly. Use a timeout
+        // value so that we never get hung up here. If the LogWriter is slow it
+        // will still close the file when it gets to the request; if it is stuck
+        // the next call to initialize() will replace it.
+        try {
+            if (pClosingSession.closedLatch.await(pWaitMs, TimeUnit.MILLISECONDS))
+                consoleLog.d(TAG, "LogWriter closed the log successfully for " + closingIdentifier);
+            else
+                consoleLog.d(TAG, "LogWriter did not close the log for " + closingIdentifier + " within " + pWaitMs +
+                        " ms; up to " + pClosingSession.queuedAtClose + " queued entries may be lost");
+        } catch (InterruptedException iex) {
+            // Noticed that when testing Auto within TeleOp the FTC runtime
+            // interrupts the OpMode thread here.
+            /*
+02-08 15:55:08.995   997  1379 D FTCRobotLog: Closing the log with 0 entries on the queue
+02-08 15:55:08.995   997  1378 D FTCRobotLog: Exception during shutdown of logger TELEOP_LOG
+02-08 15:55:08.995   997  1378 D FTCRobotLog: Error java.lang.InterruptedException
+             */
+            consoleLog.d(TAG, "Interrupted while closing the log for " + closingIdentifier);
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    // Starts the persistent LogWriter the first time through and replaces
+    // it if it has exited or is stuck.
+    private static void startLogWriterIfNeeded() throws InterruptedException {
+        if (logWriter != null) {
+            if (!logWriter.isStuck())
+                return;
+
+            // Abandon the stuck LogWriter and whatever it still holds. Do not
+            // try to close its FileHandlers: their methods are synchronized and
+            // the stuck thread may be holding the lock.
+            consoleLog.d(TAG, "LogWriter is stuck or has exited; starting a new one");
+            logWriter.abandon();
+            logWriter = null;
+        }
+
+        // Controlled startup of the LogWriter thread.
+        LogWriter newLogWriter = new LogWriter();
+        newLogWriter.logWriterFuture = Threading.launchDaemonAsync(newLogWriter);
+        newLogWriter.startedLatch.await(); // wait for the LogWriter to start
+        logWriter = newLogWriter;
+    }
+
+    // Separate, persistent thread that writes log entries to the log files.
+    private static class LogWriter implements Callable<Void> {
+        private final CountDownLatch startedLatch = new CountDownLatch(1);
+        private CompletableFuture<Void> logWriterFuture;
+
+        private final Lock logWriterLock = new ReentrantLock();
+        private final Condition logWriterCondition = logWriterLock.newCondition();
+        private boolean logWriterNotification = false; // protected by logWriterLock
+        private ArrayList<LogEntry> pendingEntries = new ArrayList<>(); // protected by logWriterLock
+        private final ArrayList<LogSession> pendingOpens = new ArrayList<>(); // protected by logWriterLock
+        private final ArrayList<LogSession> pendingCloses = new ArrayList<>(); // protected by logWriterLock
+
+        // Set under logWriterLock when a full-flush close is requested and
+        // cleared when the LogWriter collects it; read between entries.
+        private volatile boolean fullFlushRequested = false;
+
+        // For stuck-writer detection: the System.nanoTime() of the last
+        // progress - the start of the current batch or the last entry
+        // written - or 0 while waiting for work.
+        private volatile long progressNanos = 0;
+        private volatile boolean abandoned = false;
+
+        void enqueue(LogEntry pLogEntry) {
+            logWriterLock.lock();
+            try {
+                pendingEntries.add(pLogEntry);
+                logWriterNotification = true;
+                logWriterCondition.signal();
+            } finally {
+                logWriterLock.unlock();
+            }
+        }
+
+        void requestOpen(LogSession pSession) {
+            logWriterLock.lock();
+            try {
+                pendingOpens.add(pSession);
+                logWriterNotification = true;
+                logWriterCondition.signal();
+            } finally {
+                logWriterLock.unlock();
+            }
+        }
+
+        // The session's entries that are already queued are written before
+        // its file is closed. Returns the number of entries, of any session,
+        // that are queued but not yet taken by the LogWriter; counting only
+        // the session's own would mean a scan of the queue while holding
+        // the lock that every logging thread needs.
+        int requestClose(LogSession pSession) {
+            logWriterLock.lock();
+            try {
+                int queuedEntries = pendingEntries.size();
+                pendingCloses.add(pSession);
+                if (pSession.fullFlushDeadlineNanos != 0)
+                    fullFlushRequested = true;
+                logWriterNotification = true;
+                logWriterCondition.signal();
+                return queuedEntries;
+            } finally {
+                logWriterLock.unlock();
+            }
+        }
+
+        boolean isStuck() {
+            if (logWriterFuture.isDone())
+                return true;
+
+            long progress = progressNanos;
+            return progress != 0 && System.nanoTime() - progress > TimeUnit.MILLISECONDS.toNanos(STUCK_WRITER_MS);
+        }
+
+        // Called by the LogWriter thread only.
+        private void markProgress() {
+            progressNanos = System.nanoTime();
+        }
+
+        void abandon() {
+            abandoned = true;
+            logWriterFuture.cancel(true); // interrupts the thread via launchAsync
+        }
+
+        public Void call() {
+            // These buffers are reused for every batch of every session.
+            ArrayList<LogEntry> writeEntries = new ArrayList<>();
+            ArrayList<LogSession> openSessions = new ArrayList<>();
+            ArrayList<LogSession> closeSessions = new ArrayList<>();
+
+            // Use a countdown latch to signal that the CompletableFuture is started.
+            startedLatch.countDown();
+            while (!abandoned) {
+                logWriterLock.lock();
+                try {
+                    while (!logWriterNotification)
+                        logWriterCondition.await();
+
+                    logWriterNotification = false;
+
+                    // Swap the queue with the empty write buffer and collect any
+                    // close requests *inside* the lock.
+                    ArrayList<LogEntry> filledEntries = pendingEntries;
+                    pendingEntries = writeEntries;
+                    writeEntries = filledEntries;
+                    openSessions.addAll(pendingOpens);
+                    pendingOpens.clear();
+                    closeSessions.addAll(pendingCloses);
+                    pendingCloses.clear();
+                    fullFlushRequested = false;
+                } catch (InterruptedException iex) {  // await() can throw InterruptedException
+                    break; // LogWriter will exit
+                } finally {
+                    logWriterLock.unlock();
+                }
+
+                // We're *outside* the lock so more queue entries or a close request
+                // may come in. But we won't see them until the following writes to
+                // the log files have completed.
+                markProgress();
+                for (LogSession openSession : openSessions) {
+                    openSession.open();
+                    markProgress();
+                }
+
+                if (closeSessions.isEmpty()) {
+                    int written = writeEntries(writeEntries);
+
+                    // A full-flush close was requested while this batch was
+                    // being written. Its deadline covers the rest of the batch
+                    // too, so take the close now along with everything queued
+                    // since, and write the lot as one batch.
+                    if (written < writeEntries.size() && !abandoned) {
+                        writeEntries.subList(0, written).clear();
+                        openSessions.clear();
+                        takePendingRequests(writeEntries, openSessions, closeSessions);
+                        for (LogSession openSession : openSessions) {
+                            openSession.open();
+                            markProgress();
+                        }
+                    }
+                }
+
+                if (!closeSessions.isEmpty())
+                    writeEntriesAndClose(writeEntries, closeSessions);
+                progressNanos = 0;
+
+                writeEntries.clear();
+                openSessions.clear();
+                closeSessions.clear();
+            }
+
+            return null;
+        }
+
+        // Returns the number of entries written, which is less than the size
+        // of the batch if a full-flush close has been requested.
+        private int writeEntries(ArrayList<LogEntry> pEntries) {
+            int i = 0;
+            for (; i < pEntries.size() && !abandoned && !fullFlushRequested; i++) {
+                pEntries.get(i).publish();
+                markProgress();
+            }
+            return i;
+        }
+
+        // Appends the queued entries to pEntries, in order, and collects the
+        // open and close requests.
+        private void takePendingRequests(ArrayList<LogEntry> pEntries, ArrayList<LogSession> pOpenSessions,
+                                         ArrayList<LogSession> pCloseSessions) {
+            logWriterLock.lock();
+            try {
+                pEntries.addAll(pendingEntries);
+                pendingEntries.clear();
+                pOpenSessions.addAll(pendingOpens);
+                pendingOpens.clear();
+                pCloseSessions.addAll(pendingCloses);
+                pendingCloses.clear();
+                fullFlushRequested = false;
+                logWriterNotification = false;
+            } finally {
+                logWriterLock.unlock();
+            }
+        }
+
+        // For each session that is being closed without a full flush write a
+        // maximum number of 10 of its entries in this batch to its log file,
+        // then close the file. Sessions with a full flush get all of their
+        // entries in this batch written through the bulk path.
+        private void writeEntriesAndClose(ArrayList<LogEntry> pEntries, ArrayList<LogSession> pCloseSessions) {
+            for (LogSession closeSession : pCloseSessions) {
+                // The remaining entries follow these notes in the file, so give
+                // the notes the timestamp of the first of them.
+                int drainCount = 0;
+                long noteMillis = System.currentTimeMillis();
+                for (LogEntry entry : pEntries) {
+                    if (entry.session == closeSession) {
+                        if (drainCount == 0)
+                            noteMillis = entry.millis;
+                        drainCount++;
+                    }
+                }
+                closeSession.drainCount = drainCount;
+
+                consoleLog.d(TAG, "Closing the log with " + drainCount + " entries on the queue");
+                closeSession.publish(noteMillis, Level.INFO, "Closing the log with " + drainCount + " entries on the queue");
+                if (closeSession.fullFlushDeadlineNanos == 0 && drainCount > 10) {
+                    consoleLog.d(TAG, "Writing out the last 10 entries on the queue");
+                    closeSession.publish(noteMillis, Level.INFO, "Writing out the last 10 entries on the queue");
+                    closeSession.skipCount = drainCount - 10;
+                }
+            }
+
+            for (int i = 0; i < pEntries.size() && !abandoned; i++) {
+                LogEntry entry = pEntries.get(i);
+                if (!pCloseSessions.contains(entry.session))
+                    entry.publish();
+                else if (entry.session.fullFlushDeadlineNanos == 0) {
+                    if (entry.session.skipCount > 0)
+                        entry.session.skipCount--;
+                    else
+                        entry.publish();
+                }
+                markProgress();
+            }
+
+            for (LogSession closeSession : pCloseSessions) {
+                if (closeSession.fullFlushDeadlineNanos != 0)
+                    bulkWriteAndClose(closeSession, pEntries);
+                else
+                    closeSession.close();
+                markProgress();
+            }
+        }
+
+        // Bulk path for a full flush. The FileHandler is closed first so that
+        // its buffered output is flushed and the file can be appended to
+        // directly. Because the FileHandler is not involved, its 1 MB size
+        // limit does not apply to these entries.
+        private void bulkWriteAndClose(LogSession pSession, ArrayList<LogEntry> pEntries) {
+            int backlog = pSession.drainCount;
+            if (pSession.fileHandler != null)
+                pSession.fileHandler.close();
+
+            int written = 0;
+            int next = 0; // index in pEntries of the next entry to write
+            StringBuilder chunk = new StringBuilder(BULK_WRITE_CHUNK_SIZE + 1024);
+            if (pSession.fileHandler != null && backlog != 0) {
+                try (FileOutputStream logStream = new FileOutputStream(pSession.getCurrentFilePath(), true)) {
+                    int chunkCount = 0;
+                    for (; next < pEntries.size(); next++) {
+                        LogEntry entry = pEntries.get(next);
+                        if (entry.session != pSession)
+                            continue;
+
+                        if (abandoned || System.nanoTime() - pSession.fullFlushDeadlineNanos > 0)
+                            break;
+
+                        logFormatter.appendRecord(entry.millis, entry.level, entry.message, chunk);
+                        chunkCount++;
+                        if (chunk.length() >= BULK_WRITE_CHUNK_SIZE) {
+                            logStream.write(chunk.toString().getBytes());
+                            markProgress();
+                            written += chunkCount;
+                            chunkCount = 0;
+                            chunk.setLength(0);
+                        }
+                    }
+
+                    if (chunkCount != 0) {
+                        logStream.write(chunk.toString().getBytes());
+                        written += chunkCount;
+                    }
+                } catch (IOException iox) {
+                    consoleLog.d(TAG, "Error in bulk write to " + pSession.getCurrentFilePath() + ": " + iox);
+                }
+            }
+
+            // Everything after the last entry written goes to the spill file
+            // in a single write.
+            chunk.setLength(0);
+            int unwritten = backlog - written;
+            int spilled = 0;
+            int lost = 0;
+            String spillFilePath = pSession.logFilePath + ".spill";
+            if (unwritten != 0) {
+                int skip = written;
+                for (LogEntry entry : pEntries) {
+                    if (entry.session != pSession)
+                        continue;
+                    if (skip > 0) {
+                        skip--;
+                        continue;
+                    }
+                    logFormatter.appendRecord(entry.millis, entry.level, entry.message, chunk);
+                }
+
+                try (FileOutputStream spillStream = new FileOutputStream(spillFilePath, true)) {
+                    spillStream.write(chunk.toString().getBytes());
+                    spilled = unwritten;
+                } catch (IOException iox) {
+                    lost = unwritten;
+                    consoleLog.d(TAG, "Error writing spill file " + spillFilePath + ": " + iox);
+                }
+            }
+
+            String summary = "Closing the log: backlog of " + backlog + " entries, " + written + " written, " +
+                    spilled + " spilled" + (spilled != 0 ? " to " + spillFilePath : "") + ", " + lost + " lost";
+            consoleLog.d(TAG, summary);
+            if (pSession.fileHandler != null) {
+                chunk.setLength(0);
+                logFormatter.appendRecord(System.currentTimeMillis(), Level.INFO, TAG + " " + summary, chunk);
+                try (FileOutputStream logStream = new FileOutputStream(pSession.getCurrentFilePath(), true)) {
+                    logStream.write(chunk.toString().getBytes());
+                } catch (IOException iox) {
+                    consoleLog.d(TAG, "Error writing the closing summary to " + pSession.getCurrentFilePath() + ": " + iox);
+                }
+            }
+
+            pSession.closedLatch.countDown();
+        }
+    }
+
+    // Formats each record as, e.g.
+    // [2019-08-29 13:46:11.496] [INFO   ] message
+    private static class LogFormatter extends Formatter {
+        // original private static final String format = "[%1$tF %1$tT] [%2$-7s] %3$s
+        // %n";
+        // outputs [2019-08-29 13:46:11.496]
+        // private static final String format = "[%1$tF %1$tT.%1$tL] [%2$-7s] %3$s %n";
+
+        // outputs August 29, 2019 1:37:10.810 PM
+        // private static final String format = "[%1$tb %1$td, %1$tY
+        // %1$tl:%1$tM:%1$tS.%1$tL %1$Tp] [%2$-7s] %3$s %n";
+
+        // Produces the same output as the format string above without
+        // the per-record Date and String.format. The buffer is reused,
+        // which is safe because this method is synchronized.
+        private final String lineSeparator = System.getProperty("line.separator");
+        private final StringBuilder recordBuffer = new StringBuilder(256);
+
+        @Override
+        public synchronized String format(final LogRecord lr) {
+            recordBuffer.setLength(0);
+            appendRecord(lr.getMillis(), lr.getLevel(), lr.getMessage(), recordBuffer);
+            return recordBuffer.toString();
+        }
+
+        // Also used directly by the bulk write path.
+        public void appendRecord(long pMillis, Level pLevel, String pMessage, StringBuilder pBuffer) {
+            pBuffer.append('[');
+            TimeStamp.appendLogTimeStamp(pMillis, pBuffer);
+            pBuffer.append("] [");
+            String levelName = pLevel.getLocalizedName();
+            pBuffer.append(levelName);
+            for (int i = levelName.length(); i < 7; i++)
+                pBuffer.append(' ');
+            pBuffer.append("] ").append(pMessage).append(' ').append(lineSeparator);
+        }
+    }
+
+    // One log file, from initialize() to closeLog().
+    private static class LogSession {
+        public final LogIdentifier logIdentifier;
+        public final String logFilePath;
+        public volatile Level logLevel = DEFAULT_LEVEL;
+        public final CountDownLatch closedLatch = new CountDownLatch(1);
+        public volatile long fullFlushDeadlineNanos = 0; // 0 unless closing with a full flush
+        public int queuedAtClose; // used only by the thread that closes the session
+
+        // Used only by the LogWriter thread.
+        public FileHandler fileHandler; // null until opened or if the open failed
+        public int skipCount = 0;
+        public int drainCount = 0; // the session's entries in the closing batch
+
+        public LogSession(LogIdentifier pLogIdentifier, String pLogFilePath) {
+            logIdentifier = pLogIdentifier;
+            logFilePath = pLogFilePath;
+        }
+
+        public void open() {
+            try {
+                fileHandler = new FileHandler(logFilePath, 1000000, 5, true);
+                fileHandler.setFormatter(logFormatter);
+            } catch (Throwable throwable) {
+                fileHandler = null;
+                consoleLog.d(TAG, "Error opening log file " + logFilePath + "; entries for " + logIdentifier + " will be discarded");
+                consoleLog.d(TAG, "Error " + throwable);
+            }
+        }
+
+        // The FileHandler always writes to generation 0 of the rotated files.
+        public String getCurrentFilePath() {
+            return logFilePath + ".0";
+        }
+
+        // setMillis() is deprecated in Java 9 in favor of setInstant(), which
+        // requires Android API 26.
+        @SuppressWarnings("deprecation")
+        public void publish(long pMillis, Level pLevel, String pMessage) {
+            if (fileHandler == null)
+                return;
+
+            LogRecord logRecord = new LogRecord(pLevel, pMessage);
+            logRecord.setMillis(pMillis);
+            fileHandler.publish(logRecord);
+        }
+
+        public void close() {
+            if (fileHandler != null)
+                fileHandler.close();
+            closedLatch.countDown();
+        }
+    }
+
+    // Each entry is stamped when it is queued, under the class lock, so
+    // that the timestamps in a file never decrease whichever path - the
+    // FileHandler, the bulk write or the spill file - writes the entry.
+    private static class LogEntry {
+        public final LogSession session;
+        public final long millis;
+        public final Level level;
+        public final String message;
+
+        public LogEntry(LogSession pSession, long pMillis, Level pLevel, String pMessage) {
+            session = pSession;
+            millis = pMillis;
+            level = pLevel;
+            message = pMessage;
+        }
+
+        public void publish() {
+            session.publish(millis, level, message);
+        }
+    }
+
+}
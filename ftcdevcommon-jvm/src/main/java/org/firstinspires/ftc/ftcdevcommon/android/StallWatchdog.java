@@ -0,0 +1,168 @@
+package org.firstinspires.ftc.ftcdevcommon.android;
+
+import org.firstinspires.ftc.ftcdevcommon.AutoWorker;
+import org.firstinspires.ftc.ftcdevcommon.AutonomousRobotException;
+import org.firstinspires.ftc.ftcdevcommon.Heartbeat;
+
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Single thread that checks the Heartbeat of each registered worker
+// at a fixed interval and reports through RobotLogCommon when a worker
+// stops making progress, e.g. because it is blocked on a hardware read
+// or stuck in a slow frame. Launch with Threading.launchAsync() and
+// stop with stopThread().
+//
+//   StallWatchdog watchdog = new StallWatchdog(100);
+//   watchdog.register(imuReader, 250, false);
+//   watchdog.register(webcamFrameWorker.getHeartbeat(), 500, true);
+//   CompletableFuture<Void> watchdogFuture = Threading.launchAsync(watchdog);
+
+// A worker is stalled when its beat count has not changed for longer
+// than its threshold; the timer starts at registration, so a worker
+// that never starts is also reported. A stall is reported once, with
+// the worker's name, the duration and the stack of the beating thread,
+// and again when the worker resumes. If interruptOnStall is set the
+// beating thread is also interrupted, which cancels a worker that
+// handles InterruptedException in the usual way. A worker whose thread
+// has ended, e.g. one that has finished normally, is not checked until
+// it beats again on a new thread, so a worker need not be unregistered
+// when it finishes and may be relaunched.
+
+// Stalls are detected to within one check interval. The watchdog
+// itself does not allocate between stalls. It beats its own heartbeat
+// once per check, so one watchdog may be registered with another.
+public class StallWatchdog extends AutoWorker<Void> {
+
+    private static final String TAG = "StallWatchdog";
+
+    private final int checkIntervalMs;
+    private final CopyOnWriteArrayList<Registration> registrations = new CopyOnWriteArrayList<>();
+    private final AtomicLong stallCount = new AtomicLong();
+
+    // --------- CONSTRUCTORS ----------
+    public StallWatchdog(int pCheckIntervalMs) {
+        if (pCheckIntervalMs <= 0)
+            throw new AutonomousRobotException(TAG, "Check interval must be greater than 0");
+
+        checkIntervalMs = pCheckIntervalMs;
+    }
+
+    // --------- FUNCTIONS ----------
+    public void register(AutoWorker<?> pWorker, int pStallThresholdMs, boolean pInterruptOnStall) {
+        register(pWorker.getHeartbeat(), pStallThresholdMs, pInterruptOnStall);
+    }
+
+    // For tasks other than AutoWorkers, e.g. a Callable passed to
+    // Threading.launchAsync() that calls beat() on its own Heartbeat.
+    public void register(Heartbeat pHeartbeat, int pStallThresholdMs, boolean pInterruptOnStall) {
+        if (pStallThresholdMs <= 0)
+            throw new AutonomousRobotException(TAG, "Stall threshold must be greater than 0");
+
+        registrations.add(new Registration(pHeartbeat, pStallThresholdMs, pInterruptOnStall));
+    }
+
+    public void unregister(AutoWorker<?> pWorker) {
+        unregister(pWorker.getHeartbeat());
+    }
+
+    public void unregister(Heartbeat pHeartbeat) {
+        registrations.removeIf(registration -> registration.heartbeat == pHeartbeat);
+    }
+
+    // The number of stalls reported since the watchdog was created.
+    public long getStallCount() {
+        return stallCount.get();
+    }
+
+    @Override
+    public Void call() throws InterruptedException {
+        RobotLogCommon.d(TAG, "Checking heartbeats every " + checkIntervalMs + " ms");
+        while (!stopThreadRequested()) {
+            heartbeat();
+            Thread.sleep(checkIntervalMs);
+            long nowNanos = System.nanoTime();
+            for (Registration registration : registrations)
+                check(registration, nowNanos);
+        }
+
+        RobotLogCommon.d(TAG, "Stopped checking heartbeats");
+        return null;
+    }
+
+    // Registration fields other than the final ones are used only by the
+    // watchdog thread.
+    private void check(Registration pRegistration, long pNowNanos) {
+        // A worker whose thread has ended is not running, not stalled. Its
+        // timer restarts if it is relaunched.
+        Thread thread = pRegistration.heartbeat.getThread();
+        if (thread != null && !thread.isAlive()) {
+            pRegistration.stalled = false;
+            pRegistration.lastCount = pRegistration.heartbeat.getCount();
+            pRegistration.lastChangeNanos = pNowNanos;
+            return;
+        }
+
+        long count = pRegistration.heartbeat.getCount();
+        if (count != pRegistration.lastCount) {
+            if (pRegistration.stalled) {
+                long stalledMs = TimeUnit.NANOSECONDS.toMillis(pNowNanos - pRegistration.lastChangeNanos);
+                RobotLogCommon.i(TAG, pRegistration.heartbeat.getName() + " resumed after about " + stalledMs + " ms");
+                pRegistration.stalled = false;
+            }
+
+            pRegistration.lastCount = count;
+            pRegistration.lastChangeNanos = pNowNanos;
+            return;
+        }
+
+        long stalledNanos = pNowNanos - pRegistration.lastChangeNanos;
+        if (pRegistration.stalled || stalledNanos <= pRegistration.stallThresholdNanos)
+            return;
+
+        pRegistration.stalled = true;
+        stallCount.incrementAndGet();
+        reportStall(pRegistration, TimeUnit.NANOSECONDS.toMillis(stalledNanos));
+    }
+
+    private void reportStall(Registration pRegistration, long pStalledMs) {
+        Heartbeat heartbeat = pRegistration.heartbeat;
+        Thread thread = heartbeat.getThread();
+        if (thread == null) {
+            RobotLogCommon.e(TAG, heartbeat.getName() + " has not started after " + pStalledMs + " ms");
+            return;
+        }
+
+        StringBuilder report = new StringBuilder();
+        report.append(heartbeat.getName()).append(" stalled for ").append(pStalledMs)
+                .append(" ms after ").append(pRegistration.lastCount).append(" beats; thread ")
+                .append(thread.getName()).append(" is ").append(thread.getState());
+        for (StackTraceElement element : thread.getStackTrace())
+            report.append("\n    at ").append(element);
+        RobotLogCommon.e(TAG, report.toString());
+
+        if (pRegistration.interruptOnStall) {
+            RobotLogCommon.e(TAG, "Interrupting " + heartbeat.getName());
+            thread.interrupt();
+        }
+    }
+
+    private static class Registration {
+        final Heartbeat heartbeat;
+        final long stallThresholdNanos;
+        final boolean interruptOnStall;
+
+        long lastCount;
+        long lastChangeNanos;
+        boolean stalled = false;
+
+        Registration(Heartbeat pHeartbeat, int pStallThresholdMs, boolean pInterruptOnStall) {
+            heartbeat = pHeartbeat;
+            stallThresholdNanos = TimeUnit.MILLISECONDS.toNanos(pStallThresholdMs);
+            interruptOnStall = pInterruptOnStall;
+            lastCount = pHeartbeat.getCount();
+            lastChangeNanos = System.nanoTime();
+        }
+    }
+}
@@ -0,0 +1,153 @@
+package org.firstinspires.ftc.ftcdevcommon.android;
+
+import java.text.SimpleDateFormat;
+import java.util.Calendar;
+import java.util.Date;
+import java.util.Locale;
+
+// Thread-safe timestamps. All methods may be called from any thread.
+
+// The formatting methods append to a caller-supplied StringBuilder and
+// do not allocate once the calling thread has formatted its first
+// timestamp in a given hour: each thread keeps its own Calendar and a
+// cache of the year, month, day and hour fields, so only the minutes,
+// seconds and milliseconds are computed for each call. The cache is
+// per hour rather than per day so that daylight saving transitions are
+// handled by the Calendar.
+
+// getDateTimeStamp() and the log timestamps use System.currentTimeMillis().
+// For high-resolution, monotonic timestamps, e.g. for measuring intervals,
+// use currentTimeMillis() or currentTimeNanos(), which add the elapsed
+// System.nanoTime() to a wall-clock base. The base drifts from the system
+// clock when the clock is set, e.g. when the Driver Station sets the time
+// on the Robot Controller after boot, and on a phone whose nanoTime stops
+// during deep sleep, so RobotLogCommon.initialize() calls resynchronize()
+// at the start of each OpMode.
+public class TimeStamp {
+
+    // Requires Android minSdkVersion 26
+    // public static String getLocalDateTimeStamp(LocalDateTime pLocalDateTime) {
+    //    return pLocalDateTime.format(DateTimeFormatter.ofPattern("MMddHHmm'_'ssSSS"));
+    // }
+
+    // SimpleDateFormat is not thread-safe; use getDateTimeStamp() or
+    // appendDateTimeStamp() instead.
+    @Deprecated
+    public static final SimpleDateFormat dateFormat = new SimpleDateFormat("MMddHHmm'_'ssSSS", Locale.US);
+
+    private static final long MILLIS_PER_HOUR = 60L * 60L * 1000L;
+    private static final long NANOS_PER_MILLI = 1000000L;
+
+    private static volatile ClockBase clockBase = new ClockBase();
+
+    private static final ThreadLocal<HourCache> hourCache = new ThreadLocal<HourCache>() {
+        @Override
+        protected HourCache initialValue() {
+            return new HourCache();
+        }
+    };
+
+    // Format MMddHHmm_ssSSS, e.g. 01301542_17005, for use in file names.
+    public static String getDateTimeStamp(Date pDate) {
+        StringBuilder buffer = new StringBuilder(14);
+        appendDateTimeStamp(pDate.getTime(), buffer);
+        return buffer.toString();
+    }
+
+    public static String getDateTimeStamp() {
+        StringBuilder buffer = new StringBuilder(14);
+        appendDateTimeStamp(System.currentTimeMillis(), buffer);
+        return buffer.toString();
+    }
+
+    // Appends MMddHHmm_ssSSS.
+    public static void appendDateTimeStamp(long pMillis, StringBuilder pBuffer) {
+        HourCache cache = getHourCache(pMillis);
+        int millisInHour = (int) (pMillis - cache.hourStartMillis);
+        appendTwoDigits(cache.month, pBuffer);
+        appendTwoDigits(cache.day, pBuffer);
+        appendTwoDigits(cache.hour, pBuffer);
+        appendTwoDigits(millisInHour / 60000, pBuffer);
+        pBuffer.append('_');
+        appendTwoDigits((millisInHour / 1000) % 60, pBuffer);
+        appendThreeDigits(millisInHour % 1000, pBuffer);
+    }
+
+    // Appends yyyy-MM-dd HH:mm:ss.SSS, the format of the timestamp at
+    // the start of each line in the log.
+    public static void appendLogTimeStamp(long pMillis, StringBuilder pBuffer) {
+        HourCache cache = getHourCache(pMillis);
+        int millisInHour = (int) (pMillis - cache.hourStartMillis);
+        pBuffer.append(cache.year).append('-');
+        appendTwoDigits(cache.month, pBuffer);
+        pBuffer.append('-');
+        appendTwoDigits(cache.day, pBuffer);
+        pBuffer.append(' ');
+        appendTwoDigits(cache.hour, pBuffer);
+        pBuffer.append(':');
+        appendTwoDigits(millisInHour / 60000, pBuffer);
+        pBuffer.append(':');
+        appendTwoDigits((millisInHour / 1000) % 60, pBuffer);
+        pBuffer.append('.');
+        appendThreeDigits(millisInHour % 1000, pBuffer);
+    }
+
+    // Monotonic wall-clock time in milliseconds.
+    public static long currentTimeMillis() {
+        ClockBase base = clockBase;
+        return base.wallClockMillis + (System.nanoTime() - base.nanoTime) / NANOS_PER_MILLI;
+    }
+
+    // Monotonic wall-clock time in nanoseconds.
+    public static long currentTimeNanos() {
+        ClockBase base = clockBase;
+        return base.wallClockMillis * NANOS_PER_MILLI + (System.nanoTime() - base.nanoTime);
+    }
+
+    // Captures a new wall-clock base from the system clock.
+    public static void resynchronize() {
+        clockBase = new ClockBase();
+    }
+
+    private static HourCache getHourCache(long pMillis) {
+        HourCache cache = hourCache.get();
+        if (pMillis < cache.hourStartMillis || pMillis >= cache.hourStartMillis + MILLIS_PER_HOUR) {
+            Calendar calendar = cache.calendar;
+            calendar.setTimeInMillis(pMillis);
+            cache.year = calendar.get(Calendar.YEAR);
+            cache.month = calendar.get(Calendar.MONTH) + 1;
+            cache.day = calendar.get(Calendar.DAY_OF_MONTH);
+            cache.hour = calendar.get(Calendar.HOUR_OF_DAY);
+            // Not calendar.set(Calendar.MINUTE, 0) etc. because the local hour
+            // is ambiguous when the clocks go back.
+            cache.hourStartMillis = pMillis - (calendar.get(Calendar.MINUTE) * 60000L +
+                    calendar.get(Calendar.SECOND) * 1000L + calendar.get(Calendar.MILLISECOND));
+        }
+        return cache;
+    }
+
+    private static void appendTwoDigits(int pValue, StringBuilder pBuffer) {
+        pBuffer.append((char) ('0' + pValue / 10)).append((char) ('0' + pValue % 10));
+    }
+
+    private static void appendThreeDigits(int pValue, StringBuilder pBuffer) {
+        pBuffer.append((char) ('0' + pValue / 100));
+        appendTwoDigits(pValue % 100, pBuffer);
+    }
+
+    // Immutable so that the pair of values is always replaced atomically.
+    private static class ClockBase {
+        final long wallClockMillis = System.currentTimeMillis();
+        final long nanoTime = System.nanoTime();
+    }
+
+    private static class HourCache {
+        final Calendar calendar = Calendar.getInstance(Locale.US);
+        long hourStartMillis = Long.MIN_VALUE / 2; // forces a refresh on first use
+        int year;
+        int month;
+        int day;
+        int hour;
+    }
+
+}
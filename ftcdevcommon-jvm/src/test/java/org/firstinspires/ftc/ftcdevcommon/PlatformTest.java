@@ -0,0 +1,16 @@
+package org.firstinspires.ftc.ftcdevcommon;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+// On a desktop JVM no platform module supplies the adapters, so the
+// defaults apply.
+public class PlatformTest {
+
+    @Test
+    public void desktopDefaults() {
+        assertSame(ConsoleLog.STANDARD_OUT, Platform.getConsoleLog());
+        assertEquals(System.getProperty("user.dir"), Platform.getWorkingDirectory());
+    }
+}
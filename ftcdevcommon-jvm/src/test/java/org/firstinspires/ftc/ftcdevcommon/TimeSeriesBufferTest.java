@@ -0,0 +1,137 @@
+package org.firstinspires.ftc.ftcdevcommon;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+// Compares the rolling statistics of TimeSeriesBuffer with the same
+// statistics computed directly from the samples in the buffer.
+public class TimeSeriesBufferTest {
+
+    private static final double TOLERANCE = 1e-9;
+
+    @Test
+    public void emptyBufferReturnsNaN() {
+        TimeSeriesBuffer buffer = new TimeSeriesBuffer(8);
+        assertTrue(buffer.isEmpty());
+        assertTrue(Double.isNaN(buffer.getMean()));
+        assertTrue(Double.isNaN(buffer.getVariance()));
+        assertTrue(Double.isNaN(buffer.getMin()));
+        assertTrue(Double.isNaN(buffer.getMax()));
+        assertTrue(Double.isNaN(buffer.getMedian(8)));
+        assertTrue(Double.isNaN(buffer.getMeanSince(0)));
+    }
+
+    @Test
+    public void rollingStatisticsMatchDirectComputation() {
+        Random random = new Random(35);
+        for (int capacity : new int[]{1, 2, 7, 64}) {
+            TimeSeriesBuffer buffer = new TimeSeriesBuffer(capacity);
+            double[] window = new double[capacity];
+            long[] timestamps = new long[capacity];
+            int size = 0;
+
+            // Enough samples to pass the periodic recomputation of the variance.
+            long timestamp = 0;
+            for (int i = 0; i < capacity * 200 + 3; i++) {
+                timestamp += random.nextInt(3); // timestamps may repeat
+                double value = random.nextInt(4) == 0 ? 1000.0 + random.nextGaussian() : random.nextGaussian() * 10.0;
+                buffer.append(timestamp, value);
+
+                if (size == capacity) {
+                    System.arraycopy(window, 1, window, 0, capacity - 1);
+                    System.arraycopy(timestamps, 1, timestamps, 0, capacity - 1);
+                    size--;
+                }
+                window[size] = value;
+                timestamps[size] = timestamp;
+                size++;
+
+                assertEquals(size, buffer.size());
+                assertEquals(value, buffer.getLatestValue(), 0.0);
+                assertEquals(window[0], buffer.getValue(0), 0.0);
+                assertEquals(mean(window, 0, size), buffer.getMean(), TOLERANCE * 1000.0);
+                assertEquals(variance(window, size), buffer.getVariance(), 1e-6 * Math.max(1.0, variance(window, size)));
+                assertEquals(min(window, 0, size), buffer.getMin(), 0.0);
+                assertEquals(max(window, 0, size), buffer.getMax(), 0.0);
+
+                int medianWindow = 1 + random.nextInt(capacity);
+                assertEquals(median(window, size, medianWindow), buffer.getMedian(medianWindow), 0.0);
+
+                long since = timestamps[random.nextInt(size)];
+                int first = 0;
+                while (timestamps[first] < since)
+                    first++;
+                assertEquals(first, buffer.firstIndexAtOrAfter(since));
+                assertEquals(size - first, buffer.getCountSince(since));
+                assertEquals(mean(window, first, size), buffer.getMeanSince(since), TOLERANCE * 1000.0);
+                assertEquals(min(window, first, size), buffer.getMinSince(since), 0.0);
+                assertEquals(max(window, first, size), buffer.getMaxSince(since), 0.0);
+            }
+        }
+    }
+
+    @Test
+    public void copyToProducesAnEqualBuffer() {
+        TimeSeriesBuffer shared = new TimeSeriesBuffer(16, true);
+        TimeSeriesBuffer snapshot = new TimeSeriesBuffer(16);
+        for (int i = 0; i < 40; i++)
+            shared.append(i, i % 7);
+
+        shared.copyTo(snapshot);
+        assertEquals(16, snapshot.size());
+        assertEquals(39, snapshot.getLatestTimestamp());
+        assertEquals(shared.getMean(), snapshot.getMean(), 0.0);
+        assertEquals(shared.getMin(), snapshot.getMin(), 0.0);
+        assertEquals(shared.getMax(), snapshot.getMax(), 0.0);
+
+        LongDoublePair.Mutable latest = new LongDoublePair.Mutable();
+        assertTrue(shared.getLatest(latest));
+        assertEquals(39, latest.first);
+        assertEquals(39 % 7, latest.second, 0.0);
+    }
+
+    private static double mean(double[] pValues, int pFrom, int pTo) {
+        if (pFrom == pTo)
+            return Double.NaN;
+        double sum = 0.0;
+        for (int i = pFrom; i < pTo; i++)
+            sum += pValues[i];
+        return sum / (pTo - pFrom);
+    }
+
+    private static double variance(double[] pValues, int pSize) {
+        if (pSize == 1)
+            return 0.0;
+        double mean = mean(pValues, 0, pSize);
+        double sum = 0.0;
+        for (int i = 0; i < pSize; i++)
+            sum += (pValues[i] - mean) * (pValues[i] - mean);
+        return sum / (pSize - 1);
+    }
+
+    private static double min(double[] pValues, int pFrom, int pTo) {
+        double min = Double.POSITIVE_INFINITY;
+        for (int i = pFrom; i < pTo; i++)
+            min = Math.min(min, pValues[i]);
+        return min;
+    }
+
+    private static double max(double[] pValues, int pFrom, int pTo) {
+        double max = Double.NEGATIVE_INFINITY;
+        for (int i = pFrom; i < pTo; i++)
+            max = Math.max(max, pValues[i]);
+        return max;
+    }
+
+    private static double median(double[] pValues, int pSize, int pWindowSize) {
+        int windowSize = Math.min(pWindowSize, pSize);
+        double[] sorted = Arrays.copyOfRange(pValues, pSize - windowSize, pSize);
+        Arrays.sort(sorted);
+        int middle = windowSize / 2;
+        return (windowSize & 1) == 1 ? sorted[middle] : (sorted[middle - 1] + sorted[middle]) / 2.0;
+    }
+}
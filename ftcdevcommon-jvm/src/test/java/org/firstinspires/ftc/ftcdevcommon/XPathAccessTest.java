@@ -0,0 +1,52 @@
+package org.firstinspires.ftc.ftcdevcommon;
+
+import org.junit.Test;
+import org.xml.sax.InputSource;
+
+import java.io.StringReader;
+
+import javax.xml.parsers.DocumentBuilderFactory;
+
+import static org.junit.Assert.*;
+
+// The array getters must read the same text as the single-value getters:
+// the element's own text, not the text of its descendants.
+public class XPathAccessTest {
+
+    private static final int[] DEFAULT = {-1};
+
+    @Test
+    public void arrayOfRepeatedElements() throws Exception {
+        XPathAccess access = new XPathAccess(parse("<R><curve><p>1</p><p>2</p></curve></R>"));
+        assertArrayEquals(new int[]{1, 2}, access.getRequiredIntArray("curve/p"));
+        assertArrayEquals(new double[]{1.0, 2.0}, access.getRequiredDoubleArray("curve/p"), 0.0);
+    }
+
+    @Test
+    public void childTextIsNotTheParentsText() throws Exception {
+        XPathAccess access = new XPathAccess(parse("<R><curve><p>1</p><p>2</p></curve></R>"));
+        assertArrayEquals(DEFAULT, access.getIntArray("curve", DEFAULT));
+        assertEquals("", access.getString("curve", ""));
+
+        access = new XPathAccess(parse("<R><curve>3<p>1</p>4</curve></R>"));
+        assertArrayEquals(new int[]{3}, access.getIntArray("curve", DEFAULT));
+        assertEquals(3, access.getInt("curve", 0));
+    }
+
+    @Test
+    public void commaSeparatedTextAndCData() throws Exception {
+        XPathAccess access = new XPathAccess(parse("<R a='5, 6'><e>1, 2<![CDATA[, 3]]></e></R>"));
+        assertArrayEquals(new int[]{1, 2, 3}, access.getRequiredIntArray("e"));
+        assertArrayEquals(new int[]{5, 6}, access.getRequiredIntArray("@a"));
+    }
+
+    @Test(expected = AutonomousRobotException.class)
+    public void emptyListItemIsAnError() throws Exception {
+        new XPathAccess(parse("<R><e>1,,2</e></R>")).getIntArray("e", DEFAULT);
+    }
+
+    private static RobotXMLElement parse(String pXml) throws Exception {
+        return new RobotXMLElement(DocumentBuilderFactory.newInstance().newDocumentBuilder()
+                .parse(new InputSource(new StringReader(pXml))).getDocumentElement());
+    }
+}
@@ -0,0 +1,123 @@
+package org.firstinspires.ftc.ftcdevcommon;
+
+import org.junit.Test;
+import org.xml.sax.InputSource;
+
+import java.io.StringReader;
+
+import javax.xml.parsers.DocumentBuilderFactory;
+
+import static org.junit.Assert.*;
+
+// XPathBatch must return exactly what XPathAccess returns for the same
+// path, including for the edge cases below.
+public class XPathBatchTest {
+
+    private static final String DEFAULT = "DEF";
+
+    // Each entry is an XML document and a path relative to its root.
+    private static final String[][] CASES = {
+            {"<R><e>7</e></R>", "e"},
+            {"<R><e/><e>7</e></R>", "e"},
+            {"<R><e></e><e>7</e></R>", "e"},
+            {"<R><e> </e><e>7</e></R>", "e"},
+            {"<R><e>\n   7\n</e></R>", "e"},
+            {"<R><e><!-- comment -->7</e></R>", "e"},
+            {"<R><e><sub>1</sub>7</e></R>", "e"},
+            {"<R><e><![CDATA[ 5 ]]></e></R>", "e"},
+            {"<R><e>ab<![CDATA[cd]]></e></R>", "e"},
+            {"<R><e> 1<![CDATA[2]]>3 <sub/>4</e></R>", "e"},
+            {"<R><e><![CDATA[]]></e><e>7</e></R>", "e"},
+            {"<R><e>7</e><e>8</e></R>", "e"},
+            {"<R><e>7</e></R>", "./e"},
+            {"<R/>", "e"},
+            {"<R><f>7</f></R>", "e"},
+            {"<R><a><b/></a><a><b>7</b></a></R>", "a/b"},
+            {"<R><a><b>6</b></a><a><b>7</b></a></R>", "a/b"},
+            {"<R><e><e>1</e></e></R>", "e/e"},
+            {"<R><e>2<e>1</e></e></R>", "e"},
+            {"<R x=' 3 '/>", "@x"},
+            {"<R x=''/>", "@x"},
+            {"<R/>", "@x"},
+            {"<R><e a=''/><e a='x'/></R>", "e/@a"},
+            {"<R><e/><e a='x'/></R>", "e/@a"},
+            {"<R><a><e a='1'/></a><a><e a='2'/></a></R>", "a/e/@a"},
+            {"<R><e>1</e><e>2</e></R>", "e[2]"},
+            {"<R><e n='a'>1</e><e n='b'>2</e></R>", "e[@n='b']"}
+    };
+
+    @Test
+    public void getString_matchesXPathAccess() throws Exception {
+        for (String[] testCase : CASES) {
+            RobotXMLElement element = parse(testCase[0]);
+            String expected = new XPathAccess(element).getString(testCase[1], DEFAULT);
+
+            XPathBatch batch = new XPathBatch(element);
+            XPathBatch.StringItem item = batch.getString(testCase[1], DEFAULT);
+            batch.resolve();
+            assertEquals(testCase[0] + " " + testCase[1], expected, item.get());
+        }
+    }
+
+    @Test
+    public void requiredString_failsWhenXPathAccessFails() throws Exception {
+        for (String[] testCase : CASES) {
+            RobotXMLElement element = parse(testCase[0]);
+            String expected;
+            try {
+                expected = new XPathAccess(element).getRequiredString(testCase[1]);
+            } catch (AutonomousRobotException ex) {
+                expected = null;
+            }
+
+            XPathBatch batch = new XPathBatch(element);
+            XPathBatch.StringItem item = batch.requiredString(testCase[1]);
+            String actual;
+            try {
+                batch.resolve();
+                actual = item.get();
+            } catch (AutonomousRobotException ex) {
+                actual = null;
+            }
+            assertEquals(testCase[0] + " " + testCase[1], expected, actual);
+        }
+    }
+
+    @Test
+    public void allItemsResolvedTogether() throws Exception {
+        RobotXMLElement element = parse("<R dir='forward'><pid><kp>0.5</kp><ki/></pid><count>3</count><on>true</on></R>");
+        XPathBatch batch = new XPathBatch(element);
+        XPathBatch.DoubleItem kp = batch.requiredDouble("pid/kp");
+        XPathBatch.DoubleItem ki = batch.getDouble("pid/ki", 0.25);
+        XPathBatch.IntItem count = batch.requiredInt("count");
+        XPathBatch.BooleanItem on = batch.requiredBoolean("on");
+        XPathBatch.StringItem dir = batch.requiredStringInRange("@dir", batch.validRange("forward", "reverse"));
+        batch.resolve();
+
+        assertEquals(0.5, kp.get(), 0.0);
+        assertEquals(0.25, ki.get(), 0.0);
+        assertEquals(3, count.get());
+        assertTrue(on.get());
+        assertEquals("forward", dir.get());
+    }
+
+    @Test
+    public void errorsAreAggregated() throws Exception {
+        RobotXMLElement element = parse("<R><count>x</count><on>maybe</on></R>");
+        XPathBatch batch = new XPathBatch(element);
+        batch.requiredInt("count");
+        batch.requiredBoolean("on");
+        batch.requiredDouble("missing");
+        try {
+            batch.resolve();
+            fail("Expected an AutonomousRobotException");
+        } catch (AutonomousRobotException ex) {
+            assertTrue(ex.getMessage(), ex.getMessage().contains("3 error(s)"));
+        }
+    }
+
+    private static RobotXMLElement parse(String pXml) throws Exception {
+        return new RobotXMLElement(DocumentBuilderFactory.newInstance().newDocumentBuilder()
+                .parse(new InputSource(new StringReader(pXml))).getDocumentElement());
+    }
+}
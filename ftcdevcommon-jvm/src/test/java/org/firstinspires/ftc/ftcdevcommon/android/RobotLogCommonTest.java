@@ -0,0 +1,183 @@
+package org.firstinspires.ftc.ftcdevcommon.android;
+
+import org.firstinspires.ftc.ftcdevcommon.AutonomousRobotException;
+import org.firstinspires.ftc.ftcdevcommon.ConsoleLog;
+import org.firstinspires.ftc.ftcdevcommon.RobotLogReader;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+
+import static org.junit.Assert.*;
+
+public class RobotLogCommonTest {
+
+    private static final String TAG = "RobotLogCommonTest";
+
+    @Rule
+    public TemporaryFolder logFolder = new TemporaryFolder();
+
+    private final List<String> consoleMessages = new ArrayList<>();
+    private volatile long closeTakenNanos; // when the LogWriter took the last close request
+
+    @Before
+    public void setUp() {
+        RobotLogCommon.setConsoleLog((pTag, pMessage) -> {
+            if (pMessage.startsWith("Closing the log with "))
+                closeTakenNanos = System.nanoTime();
+            synchronized (consoleMessages) {
+                consoleMessages.add(pMessage);
+            }
+        });
+    }
+
+    @After
+    public void tearDown() {
+        RobotLogCommon.closeLog();
+        RobotLogCommon.setConsoleLog(ConsoleLog.STANDARD_OUT);
+    }
+
+    @Test
+    public void missingDirectoryDisablesLogging() {
+        String logDirPath = new File(logFolder.getRoot(), "nonexistent").getPath() + File.separator;
+        assertEquals(RobotLogCommon.OpenStatus.LOGGING_DISABLED,
+                RobotLogCommon.initialize(RobotLogCommon.LogIdentifier.TEST_LOG, logDirPath));
+        assertEquals(Level.OFF, RobotLogCommon.getMostDetailedLogLevel());
+    }
+
+    @Test
+    public void fullFlushWritesEveryEntry() throws Exception {
+        String logDirPath = logFolder.getRoot().getPath() + File.separator;
+        assertEquals(RobotLogCommon.OpenStatus.NEW_LOGGER_CREATED,
+                RobotLogCommon.initialize(RobotLogCommon.LogIdentifier.TEST_LOG, logDirPath));
+
+        int entryCount = 30000;
+        for (int i = 0; i < entryCount; i++)
+            RobotLogCommon.d(TAG, "Entry " + i);
+        RobotLogCommon.closeLog(10000);
+
+        // The rotated log files, oldest first, followed by the spill file if any.
+        List<File> logFiles = getLogFiles();
+        RobotLogReader reader = new RobotLogReader(logFiles);
+        int testEntries = 0;
+        String summary = null;
+        for (int i = 0; i < reader.getEntryCount(); i++) {
+            // Entries written through the FileHandler and through the bulk
+            // path carry the same clock.
+            if (i > 0)
+                assertTrue(reader.getText(i), reader.getTimestamp(i) >= reader.getTimestamp(i - 1));
+
+            if (TAG.equals(reader.getTag(i))) {
+                assertEquals("Entry " + testEntries, reader.getMessage(i));
+                testEntries++;
+            } else if (reader.getMessage(i).startsWith("Closing the log: "))
+                summary = reader.getMessage(i);
+        }
+
+        assertEquals(entryCount, testEntries);
+        assertNotNull(summary);
+        assertTrue(summary, summary.endsWith(", 0 lost"));
+    }
+
+    @Test
+    public void fullFlushSpillsAfterTheDeadline() throws Exception {
+        String logDirPath = logFolder.getRoot().getPath() + File.separator;
+        RobotLogCommon.initialize(RobotLogCommon.LogIdentifier.TEST_LOG, logDirPath);
+
+        int entryCount = 30000;
+        for (int i = 0; i < entryCount; i++)
+            RobotLogCommon.d(TAG, "Entry " + i);
+        RobotLogCommon.closeLog(1);
+
+        // Whether or not the deadline was missed every entry is either in
+        // the log or in the spill file.
+        waitForLogClosed();
+        RobotLogReader reader = new RobotLogReader(getLogFiles());
+        int testEntries = 0;
+        for (int i = 0; i < reader.getEntryCount(); i++)
+            if (TAG.equals(reader.getTag(i)))
+                testEntries++;
+        assertEquals(entryCount, testEntries);
+    }
+
+    // A close requested while the LogWriter is writing a large batch
+    // through the FileHandler covers the rest of that batch.
+    @Test
+    public void fullFlushTakesOverTheBatchInFlight() throws Exception {
+        String logDirPath = logFolder.getRoot().getPath() + File.separator;
+        RobotLogCommon.initialize(RobotLogCommon.LogIdentifier.TEST_LOG, logDirPath);
+
+        int entryCount = 100000;
+        for (int i = 0; i < entryCount; i++)
+            RobotLogCommon.d(TAG, "Entry " + i);
+        Thread.sleep(20); // let the LogWriter take the queue
+        long closeNanos = System.nanoTime();
+        RobotLogCommon.closeLog(50);
+        waitForLogClosed();
+
+        // The LogWriter took the close without finishing its batch, which
+        // takes hundreds of milliseconds through the FileHandler.
+        long closeTakenMs = TimeUnit.NANOSECONDS.toMillis(closeTakenNanos - closeNanos);
+        assertTrue(closeTakenMs + " ms", closeTakenMs < 50);
+
+        // Every entry is in the log or the spill file, once and in order,
+        // and those that the FileHandler did not write are in the backlog.
+        RobotLogReader reader = new RobotLogReader(getLogFiles());
+        int testEntries = 0;
+        int backlogStart = -1;
+        String summary = null;
+        for (int i = 0; i < reader.getEntryCount(); i++) {
+            if (TAG.equals(reader.getTag(i))) {
+                assertEquals("Entry " + testEntries, reader.getMessage(i));
+                testEntries++;
+            } else if (reader.getText(i).contains("Closing the log with "))
+                backlogStart = testEntries;
+            else if (reader.getMessage(i).startsWith("Closing the log: "))
+                summary = reader.getMessage(i);
+        }
+
+        assertEquals(entryCount, testEntries);
+        assertNotNull(summary);
+        assertTrue(summary, summary.startsWith("Closing the log: backlog of " + (entryCount - backlogStart) + " entries, "));
+        assertTrue(summary, summary.endsWith(", 0 lost"));
+    }
+
+    @Test(expected = AutonomousRobotException.class)
+    public void fullFlushRejectsNonPositiveDeadline() {
+        RobotLogCommon.closeLog(0);
+    }
+
+    private void waitForLogClosed() throws InterruptedException {
+        for (int i = 0; i < 200; i++) {
+            synchronized (consoleMessages) {
+                for (String message : consoleMessages)
+                    if (message.startsWith("Closing the log: "))
+                        return;
+            }
+            Thread.sleep(50);
+        }
+        fail("The log was not closed");
+    }
+
+    private List<File> getLogFiles() {
+        File[] files = logFolder.getRoot().listFiles((pDir, pName) -> !pName.endsWith(".lck"));
+        assertNotNull(files);
+        Arrays.sort(files, (a, b) -> rank(a.getName()) - rank(b.getName()));
+        return Arrays.asList(files);
+    }
+
+    // .4 (oldest) to .0, then .spill.
+    private static int rank(String pFileName) {
+        if (pFileName.endsWith(".spill"))
+            return 10;
+        return 4 - (pFileName.charAt(pFileName.length() - 1) - '0');
+    }
+}
@@ -0,0 +1,87 @@
+package org.firstinspires.ftc.ftcdevcommon.android;
+
+import org.junit.Test;
+
+import java.text.SimpleDateFormat;
+import java.util.Date;
+import java.util.Locale;
+import java.util.Random;
+import java.util.TimeZone;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.Assert.*;
+
+// TimeStamp must format exactly as SimpleDateFormat does, including
+// across daylight saving transitions.
+public class TimeStampTest {
+
+    // The US transitions on 2026-03-08 and 2026-11-01 and the European
+    // ones on 2026-03-29 and 2026-10-25, in UTC; Lord Howe Island shifts
+    // by only 30 minutes.
+    private static final String[] TIME_ZONES = {"UTC", "America/Chicago", "Europe/Berlin", "Australia/Lord_Howe"};
+    private static final long[] TRANSITIONS = {1772956800000L, 1793516400000L, 1774746000000L, 1792890000000L};
+
+    @Test
+    public void formatsMatchSimpleDateFormat() throws Exception {
+        TimeZone defaultTimeZone = TimeZone.getDefault();
+        try {
+            for (String timeZone : TIME_ZONES) {
+                TimeZone.setDefault(TimeZone.getTimeZone(timeZone));
+
+                // Each thread caches the current hour with its own Calendar,
+                // which takes the default time zone when it is created.
+                AtomicReference<Throwable> failure = new AtomicReference<>();
+                Thread checkThread = new Thread(() -> {
+                    try {
+                        checkTimeZone(timeZone);
+                    } catch (Throwable t) {
+                        failure.set(t);
+                    }
+                });
+                checkThread.start();
+                checkThread.join();
+                if (failure.get() != null)
+                    throw new AssertionError(timeZone, failure.get());
+            }
+        } finally {
+            TimeZone.setDefault(defaultTimeZone);
+        }
+    }
+
+    @Test
+    public void getDateTimeStampUsesTheSystemClock() {
+        SimpleDateFormat fileNameFormat = new SimpleDateFormat("MMddHHmm", Locale.US);
+        long before = System.currentTimeMillis();
+        String stamp = TimeStamp.getDateTimeStamp();
+        long after = System.currentTimeMillis();
+
+        // Allow for a change of minute between the calls.
+        String prefix = stamp.substring(0, 8);
+        assertTrue(stamp, prefix.equals(fileNameFormat.format(new Date(before))) ||
+                prefix.equals(fileNameFormat.format(new Date(after))));
+    }
+
+    private static void checkTimeZone(String pTimeZone) {
+        SimpleDateFormat fileNameFormat = new SimpleDateFormat("MMddHHmm'_'ssSSS", Locale.US);
+        SimpleDateFormat logFormat = new SimpleDateFormat("yyyy-MM-dd HH:mm:ss.SSS", Locale.US);
+        StringBuilder buffer = new StringBuilder();
+        Random random = new Random(30);
+
+        for (int i = 0; i < 20000; i++) {
+            long millis;
+            if (i % 2 == 0) {
+                // Within two hours either side of a transition.
+                long transition = TRANSITIONS[(i / 2) % TRANSITIONS.length];
+                millis = transition - 7200000L + (i / 2 / TRANSITIONS.length) * 5760L + random.nextInt(1000);
+            } else
+                millis = 946684800000L + (long) (random.nextDouble() * 1.6e12); // 2000 to 2050
+
+            Date date = new Date(millis);
+            assertEquals(pTimeZone + " " + millis, fileNameFormat.format(date), TimeStamp.getDateTimeStamp(date));
+
+            buffer.setLength(0);
+            TimeStamp.appendLogTimeStamp(millis, buffer);
+            assertEquals(pTimeZone + " " + millis, logFormat.format(date), buffer.toString());
+        }
+    }
+}
@@ -0,0 +1,7 @@
+# The platform adapters are found by Platform with ServiceLoader, through
+# the files in META-INF/services, which name the interfaces and the
+# implementations.
+-keepnames interface org.firstinspires.ftc.ftcdevcommon.ConsoleLog
+-keepnames interface org.firstinspires.ftc.ftcdevcommon.WorkingDirectoryAdapter
+-keep class org.firstinspires.ftc.ftcdevcommon.android.AndroidConsoleLog { <init>(); }
+-keep class org.firstinspires.ftc.ftcdevcommon.android.AndroidWorkingDirectory { <init>(); }
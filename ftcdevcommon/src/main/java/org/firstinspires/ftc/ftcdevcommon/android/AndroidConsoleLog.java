@@ -0,0 +1,14 @@
+package org.firstinspires.ftc.ftcdevcommon.android;
+
+import android.util.Log;
+
+import org.firstinspires.ftc.ftcdevcommon.ConsoleLog;
+
+// Writes console messages to logcat; see Platform.
+public class AndroidConsoleLog implements ConsoleLog {
+
+    @Override
+    public void d(String pTag, String pMessage) {
+        Log.d(pTag, pMessage);
+    }
+}
@@ -0,0 +1,12 @@
+package org.firstinspires.ftc.ftcdevcommon.android;
+
+import org.firstinspires.ftc.ftcdevcommon.WorkingDirectoryAdapter;
+
+// Supplies /sdcard/FIRST/TeamData as the working directory; see Platform.
+public class AndroidWorkingDirectory implements WorkingDirectoryAdapter {
+
+    @Override
+    public String getWorkingDirectory() {
+        return WorkingDirectory.getWorkingDirectory();
+    }
+}